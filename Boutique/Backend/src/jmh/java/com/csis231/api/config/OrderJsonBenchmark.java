@@ -0,0 +1,76 @@
+package com.csis231.api.config;
+
+import com.csis231.api.dto.OrderDto;
+import com.csis231.api.service.SampleOrders;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing and parsing order lists with the application's {@link JacksonConfig} mapper,
+ * at the sizes of a page, a large page and a full order list. Scores are milliseconds per
+ * list.
+ *
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="OrderJson -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderJsonBenchmark {
+
+    private static final TypeReference<List<OrderDto>> ORDER_LIST = new TypeReference<>() {
+    };
+
+    @Param({"100", "500", "20000"})
+    public int orders;
+
+    private ObjectMapper mapper;
+    private ObjectWriter writer;
+    private List<OrderDto> dtos;
+    private byte[] json;
+
+    @Setup
+    public void load() throws IOException {
+        mapper = new JacksonConfig().objectMapper();
+        writer = mapper.writerFor(ORDER_LIST);
+        dtos = SampleOrders.dtos(orders, 11);
+        json = writer.writeValueAsBytes(dtos);
+    }
+
+    /** Streams to a sink, as the message converter writes to the response. */
+    @Benchmark
+    public OutputStream serialize() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        writer.writeValue(out, dtos);
+        return out;
+    }
+
+    @Benchmark
+    public byte[] serializeToBytes() throws IOException {
+        return writer.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public List<OrderDto> parse() throws IOException {
+        return mapper.readValue(json, ORDER_LIST);
+    }
+}
@@ -0,0 +1,241 @@
+package com.csis231.api.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Closed-loop HTTP load against a running backend: every client sends one request, waits for
+ * the answer and sends the next, with a fixed mix of product, order and checkout calls.
+ * Prints throughput and p50/p99 latency per call. Seeds are fixed, so two runs against
+ * servers in different thread modes send the same request sequence.
+ *
+ * Start the backend with SPRING_THREADS_VIRTUAL_ENABLED=false, run
+ *   mvn -Pbenchmarks test-compile exec:exec@load-test -Dload.args="--label platform"
+ * then restart it with SPRING_THREADS_VIRTUAL_ENABLED=true and run again with --label virtual.
+ * Options: --url (http://localhost:8080), --clients (200), --warmup seconds (10),
+ * --seconds (30), --label.
+ */
+public final class LoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private enum Call {
+        PRODUCTS("GET /api/products", 25),
+        PRODUCT("GET /api/products/{id}", 25),
+        ORDERS_PAGE("GET /api/orders/page", 20),
+        ORDER("GET /api/orders/{id}", 20),
+        CHECKOUT("POST /api/checkout", 10);
+
+        final String label;
+        final int weight;
+
+        Call(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    private final String url;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> orderIds = new ArrayList<>();
+    private long customerId;
+
+    private LoadTest(String url) {
+        this.url = url;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "url", "http://localhost:8080", "clients", "200", "warmup", "10", "seconds", "30", "label", "run"));
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+
+        LoadTest test = new LoadTest(options.get("url"));
+        test.setUp();
+        int clients = Integer.parseInt(options.get("clients"));
+        test.run(clients, Integer.parseInt(options.get("warmup")), false);
+        Map<Call, LatencyLog> latencies = test.run(clients, Integer.parseInt(options.get("seconds")), true);
+        report(options.get("label"), clients, Integer.parseInt(options.get("seconds")), latencies);
+    }
+
+    private void setUp() throws IOException, InterruptedException {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        customerId = post("/api/customers",
+                "{\"name\":\"Load " + run + "\",\"contact\":\"load-" + run + "@example.com\"}").get("customerId").asLong();
+        for (int i = 0; i < 50; i++) {
+            productIds.add(post("/api/products", "{\"name\":\"load-" + run + "-" + i
+                    + "\",\"category\":\"HANDBAGS\",\"price\":" + (10 + i) + ".00,\"stockQty\":100000000}")
+                    .get("productId").asLong());
+        }
+        for (int i = 0; i < 20; i++) {
+            orderIds.add(post("/api/checkout", checkoutBody(new SplittableRandom(i))).get("orderId").asLong());
+        }
+    }
+
+    /** Runs all clients for the given time and returns each call's latencies. */
+    private Map<Call, LatencyLog> run(int clients, int seconds, boolean measure) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Map<Call, LatencyLog>> logs = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int c = 0; c < clients; c++) {
+            Map<Call, LatencyLog> log = new EnumMap<>(Call.class);
+            for (Call call : Call.values()) {
+                log.put(call, new LatencyLog());
+            }
+            logs.add(log);
+            SplittableRandom random = new SplittableRandom(1000L + c);
+            Thread.ofVirtual().start(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        Call call = pick(random);
+                        long started = System.nanoTime();
+                        boolean ok = send(call, random);
+                        log.get(call).add(System.nanoTime() - started, ok);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+
+        Map<Call, LatencyLog> merged = new EnumMap<>(Call.class);
+        if (!measure) {
+            return merged;
+        }
+        for (Call call : Call.values()) {
+            LatencyLog all = new LatencyLog();
+            for (Map<Call, LatencyLog> log : logs) {
+                all.addAll(log.get(call));
+            }
+            merged.put(call, all);
+        }
+        return merged;
+    }
+
+    private Call pick(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        for (Call call : Call.values()) {
+            roll -= call.weight;
+            if (roll < 0) {
+                return call;
+            }
+        }
+        return Call.PRODUCTS;
+    }
+
+    private boolean send(Call call, SplittableRandom random) {
+        HttpRequest.Builder request = switch (call) {
+            case PRODUCTS -> HttpRequest.newBuilder(URI.create(url + "/api/products"));
+            case PRODUCT -> HttpRequest.newBuilder(URI.create(url + "/api/products/"
+                    + productIds.get(random.nextInt(productIds.size()))));
+            case ORDERS_PAGE -> HttpRequest.newBuilder(URI.create(url + "/api/orders/page?limit=50"));
+            case ORDER -> HttpRequest.newBuilder(URI.create(url + "/api/orders/"
+                    + orderIds.get(random.nextInt(orderIds.size()))));
+            case CHECKOUT -> HttpRequest.newBuilder(URI.create(url + "/api/checkout"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(checkoutBody(random)));
+        };
+        try {
+            HttpResponse<Void> response = http.send(request.timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private String checkoutBody(SplittableRandom random) {
+        long first = productIds.get(random.nextInt(productIds.size()));
+        long second = productIds.get(random.nextInt(productIds.size()));
+        return "{\"customerId\":" + customerId + ",\"fulfill\":true,\"lines\":["
+                + "{\"productId\":" + first + ",\"quantity\":1},"
+                + "{\"productId\":" + second + ",\"quantity\":2}]}";
+    }
+
+    private JsonNode post(String path, String body) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Setup call " + path + " failed: " + response.statusCode() + " " + response.body());
+        }
+        return JSON.readTree(response.body());
+    }
+
+    private static void report(String label, int clients, int seconds, Map<Call, LatencyLog> latencies) {
+        System.out.printf("%n%s: %d clients, %d s%n", label, clients, seconds);
+        System.out.printf("%-24s %9s %7s %9s %9s %9s %9s%n", "call", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        LatencyLog all = new LatencyLog();
+        for (Call call : Call.values()) {
+            LatencyLog log = latencies.get(call);
+            print(call.label, log.sorted(), log.errors, seconds);
+            all.addAll(log);
+        }
+        print("all", all.sorted(), all.errors, seconds);
+    }
+
+    private static void print(String label, long[] sorted, int errors, int seconds) {
+        System.out.printf("%-24s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", label, sorted.length, errors,
+                sorted.length / (double) seconds, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    /** Growable list of latencies in nanoseconds, plus a count of failed calls. */
+    private static final class LatencyLog {
+        private long[] values = new long[1024];
+        private int size;
+        private int errors;
+
+        void add(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        void addAll(LatencyLog other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i], true);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] out = Arrays.copyOf(values, size);
+            Arrays.sort(out);
+            return out;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.OrderDto;
+import com.csis231.api.entity.Order;
+import com.csis231.api.entity.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-order cost of the work every order read does after the query: entity to DTO
+ * conversion, reading the stored total versus summing the items, and the BigDecimal
+ * subtotal math OrderItemService does for each line. Scores are nanoseconds per order.
+ *
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="OrderConversion -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(OrderConversionBenchmark.ORDERS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderConversionBenchmark {
+
+    static final int ORDERS = 10_000;
+
+    private final OrderService orderService = new OrderService(null, null, null, null);
+    private List<Order> orders;
+
+    @Setup
+    public void load() {
+        orders = SampleOrders.orders(ORDERS, 7);
+    }
+
+    @Benchmark
+    public void convertToDto(Blackhole blackhole) {
+        for (Order order : orders) {
+            OrderDto dto = orderService.convertToDto(order);
+            blackhole.consume(dto);
+        }
+    }
+
+    @Benchmark
+    public void storedTotal(Blackhole blackhole) {
+        for (Order order : orders) {
+            blackhole.consume(order.getTotal());
+        }
+    }
+
+    /** What a total computed from the items costs, for comparison with the stored one. */
+    @Benchmark
+    public void totalFromItems(Blackhole blackhole) {
+        for (Order order : orders) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (OrderItem item : order.getOrderItems()) {
+                total = total.add(item.getSubtotal());
+            }
+            blackhole.consume(total);
+        }
+    }
+
+    @Benchmark
+    public void itemSubtotals(Blackhole blackhole) {
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                blackhole.consume(item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.ProductDto;
+import com.csis231.api.entity.Product;
+import com.csis231.api.entity.ProductCategory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads served from {@link ProductCatalogCache.Catalog} and the cost of rebuilding it, which
+ * every catalog write pays. Scores are nanoseconds per operation.
+ *
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="ProductCatalog -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductCatalogBenchmark {
+
+    @Param({"1000", "10000"})
+    public int products;
+
+    private Map<Long, ProductDto> byId;
+    private ProductCatalogCache.Catalog catalog;
+    private final SplittableRandom random = new SplittableRandom(3);
+
+    @Setup
+    public void load() {
+        byId = new LinkedHashMap<>();
+        for (Product product : SampleOrders.products(products, 5)) {
+            byId.put(product.getProductId(), ProductDto.builder()
+                    .productId(product.getProductId())
+                    .name(product.getName())
+                    .category(product.getCategory())
+                    .price(product.getPrice())
+                    .stockQty(product.getStockQty())
+                    .build());
+        }
+        catalog = ProductCatalogCache.Catalog.of(new LinkedHashMap<>(byId));
+    }
+
+    @Benchmark
+    public ProductDto getById() {
+        return catalog.get(1L + random.nextInt(products));
+    }
+
+    @Benchmark
+    public List<ProductDto> category() {
+        return catalog.category(ProductCategory.HANDBAGS);
+    }
+
+    @Benchmark
+    public ProductCatalogCache.Catalog rebuild() {
+        return ProductCatalogCache.Catalog.of(new LinkedHashMap<>(byId));
+    }
+}
@@ -0,0 +1,90 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.SalesReportDto;
+import com.csis231.api.entity.ProductCategory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan speed of {@link SalesColumnStore} over a year of synthetic fulfilled orders. Scores
+ * are order lines aggregated per second.
+ *
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="SalesColumnStore -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(SalesColumnStoreBenchmark.LINES)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SalesColumnStoreBenchmark {
+
+    static final int LINES = 5_000_000;
+    private static final int PRODUCTS = 2_000;
+    private static final int FIRST_DAY = (int) LocalDate.of(2025, 1, 1).toEpochDay();
+    private static final int DAYS = 365;
+
+    private SalesColumnStore store;
+    private long popularProductId;
+
+    @Setup
+    public void fill() {
+        SplittableRandom random = new SplittableRandom(42);
+        ProductCategory[] categories = ProductCategory.values();
+        store = new SalesColumnStore();
+
+        List<SalesColumnStore.Line> lines = new ArrayList<>();
+        long orderId = 1;
+        int appended = 0;
+        while (appended < LINES) {
+            int day = FIRST_DAY + random.nextInt(DAYS);
+            int count = Math.min(1 + random.nextInt(6), LINES - appended);
+            lines.clear();
+            for (int i = 0; i < count; i++) {
+                long productId = 1 + random.nextInt(PRODUCTS);
+                lines.add(new SalesColumnStore.Line(productId, categories[(int) (productId % categories.length)],
+                        1 + random.nextInt(4), 500 + random.nextInt(20_000)));
+            }
+            store.append(orderId++, day, lines);
+            appended += count;
+        }
+        popularProductId = 7;
+    }
+
+    @Benchmark
+    public SalesColumnStore.Result yearByCategory() {
+        return store.aggregate(FIRST_DAY, FIRST_DAY + DAYS - 1, null, null, SalesReportDto.GroupBy.CATEGORY);
+    }
+
+    @Benchmark
+    public SalesColumnStore.Result quarterByProduct() {
+        return store.aggregate(FIRST_DAY, FIRST_DAY + 89, null, null, SalesReportDto.GroupBy.PRODUCT);
+    }
+
+    @Benchmark
+    public SalesColumnStore.Result yearOfOneProductByDay() {
+        return store.aggregate(FIRST_DAY, FIRST_DAY + DAYS - 1, null, popularProductId, SalesReportDto.GroupBy.DAY);
+    }
+
+    @Benchmark
+    public SalesColumnStore.Result monthOfOneCategoryByDay() {
+        return store.aggregate(FIRST_DAY + 31, FIRST_DAY + 58, ProductCategory.values()[0], null,
+                SalesReportDto.GroupBy.DAY);
+    }
+}
@@ -0,0 +1,97 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.OrderDto;
+import com.csis231.api.entity.Customer;
+import com.csis231.api.entity.Order;
+import com.csis231.api.entity.OrderItem;
+import com.csis231.api.entity.Product;
+import com.csis231.api.entity.ProductCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic orders for the benchmarks, shaped like the real data: 1 to 8 items per order,
+ * prices with cents, stored totals that match the items. The same seed gives the same orders.
+ */
+public final class SampleOrders {
+
+    private SampleOrders() {
+    }
+
+    public static List<Product> products(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ProductCategory[] categories = ProductCategory.values();
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(Product.builder()
+                    .productId((long) i + 1)
+                    .name("Product " + (i + 1))
+                    .category(categories[random.nextInt(categories.length)])
+                    .price(BigDecimal.valueOf(500 + random.nextInt(50_000), 2))
+                    .stockQty(random.nextInt(4) == 0 ? 0 : random.nextInt(200))
+                    .build());
+        }
+        return products;
+    }
+
+    public static List<Order> orders(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Product> products = products(500, seed);
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            customers.add(Customer.builder().customerId((long) i + 1).name("Customer " + (i + 1))
+                    .contact("customer" + (i + 1) + "@example.com").build());
+        }
+
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        Order.OrderStatus[] statuses = Order.OrderStatus.values();
+        List<Order> orders = new ArrayList<>(count);
+        long itemId = 1;
+        for (int i = 0; i < count; i++) {
+            Order order = Order.builder()
+                    .orderId((long) i + 1)
+                    .customer(customers.get(random.nextInt(customers.size())))
+                    .description(random.nextBoolean() ? "Order " + (i + 1) : null)
+                    .placedAt(start.plusMinutes(17L * i))
+                    .status(statuses[random.nextInt(statuses.length)])
+                    .orderItems(new ArrayList<>())
+                    .build();
+            BigDecimal total = BigDecimal.ZERO;
+            int units = 0;
+            int lines = 1 + random.nextInt(8);
+            for (int j = 0; j < lines; j++) {
+                Product product = products.get(random.nextInt(products.size()));
+                int quantity = 1 + random.nextInt(5);
+                BigDecimal subtotal = product.getPrice().multiply(BigDecimal.valueOf(quantity));
+                order.getOrderItems().add(OrderItem.builder()
+                        .id(itemId++)
+                        .order(order)
+                        .product(product)
+                        .productName(product.getName())
+                        .unitPrice(product.getPrice())
+                        .quantity(quantity)
+                        .subtotal(subtotal)
+                        .build());
+                total = total.add(subtotal);
+                units += quantity;
+            }
+            order.setTotal(total);
+            order.setUnitCount(units);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    public static List<OrderDto> dtos(int count, long seed) {
+        OrderService converter = new OrderService(null, null, null, null);
+        List<OrderDto> dtos = new ArrayList<>(count);
+        for (Order order : orders(count, seed)) {
+            dtos.add(converter.convertToDto(order));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,62 @@
+package com.csis231.api.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Update cost of {@link SpaceSavingSketch} on a skewed stream of product sales, where most
+ * offers hit tracked products and the rest evict the minimum. Scores are nanoseconds per
+ * offer.
+ *
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.args="SpaceSavingSketch -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(SpaceSavingSketchBenchmark.OFFERS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpaceSavingSketchBenchmark {
+
+    static final int OFFERS = 1 << 16;
+
+    @Param({"256", "4096"})
+    public int capacity;
+
+    private long[] items;
+    private long[] weights;
+
+    @Setup
+    public void load() {
+        SplittableRandom random = new SplittableRandom(9);
+        items = new long[OFFERS];
+        weights = new long[OFFERS];
+        for (int i = 0; i < OFFERS; i++) {
+            items[i] = (long) Math.floor(Math.pow(random.nextDouble(), 3) * 20_000);
+            weights[i] = 1 + random.nextInt(4);
+        }
+    }
+
+    @Benchmark
+    public SpaceSavingSketch offer() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        for (int i = 0; i < OFFERS; i++) {
+            sketch.offer(items[i], weights[i]);
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,92 @@
+package com.csis231.api.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit for one class of endpoints. Up to maxConcurrent requests run at once, up
+ * to maxQueued more wait at most maxWaitMillis for a slot, and anything beyond that is turned
+ * away at once. A request holds at most one database connection, so maxConcurrent is also the
+ * share of the connection pool this class can take.
+ */
+public class Bulkhead {
+
+    public enum Type {
+        CHECKOUT,
+        CATALOG,
+        ADMIN,
+        REPORTING,
+        AUTH,
+        EVENTS
+    }
+
+    private final Type type;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public Bulkhead(Type type, int maxConcurrent, int maxQueued, long maxWaitMillis) {
+        this.type = type;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /** Takes a slot, waiting if allowed; false means the request should be rejected. */
+    public boolean tryEnter() throws InterruptedException {
+        if (!permits.tryAcquire()) {
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                rejected.incrementAndGet();
+                return false;
+            }
+            try {
+                if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+        active.incrementAndGet();
+        return true;
+    }
+
+    public void exit() {
+        active.decrementAndGet();
+        permits.release();
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /** Share of the concurrency limit in use, from 0 to 1. */
+    public double getSaturation() {
+        return (double) active.get() / maxConcurrent;
+    }
+}
@@ -0,0 +1,194 @@
+package com.csis231.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Puts each request in the bulkhead of its endpoint class, so slow reports, bulk imports or a
+ * burst of logins can use up only their own slots and connections and never the ones checkout
+ * needs. Requests that find their bulkhead and its queue full get a 503 straight away. Every
+ * /api endpoint belongs to a class; the event stream has its own, which limits open streams
+ * rather than connections since a stream holds none.
+ *
+ * Limits come from boutique.bulkheads.{checkout,catalog,admin,reporting,auth,events}.{max-concurrent,
+ * max-queued,max-wait-ms}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final Map<Bulkhead.Type, int[]> DEFAULTS = Map.of(
+            // max concurrent, max queued, max wait ms
+            Bulkhead.Type.CHECKOUT, new int[]{16, 200, 2000},
+            Bulkhead.Type.CATALOG, new int[]{8, 200, 1000},
+            Bulkhead.Type.ADMIN, new int[]{3, 20, 2000},
+            Bulkhead.Type.REPORTING, new int[]{3, 10, 5000},
+            Bulkhead.Type.AUTH, new int[]{3, 50, 2000},
+            Bulkhead.Type.EVENTS, new int[]{500, 0, 0});
+
+    private final Map<Bulkhead.Type, Bulkhead> bulkheads = new EnumMap<>(Bulkhead.Type.class);
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(Environment environment, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (Bulkhead.Type type : Bulkhead.Type.values()) {
+            String prefix = "boutique.bulkheads." + type.name().toLowerCase(Locale.ROOT) + ".";
+            int[] defaults = DEFAULTS.get(type);
+            Bulkhead bulkhead = new Bulkhead(type,
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, defaults[0]),
+                    environment.getProperty(prefix + "max-queued", Integer.class, defaults[1]),
+                    environment.getProperty(prefix + "max-wait-ms", Long.class, (long) defaults[2]));
+            bulkheads.put(type, bulkhead);
+            register(bulkhead, meterRegistry);
+        }
+    }
+
+    public Bulkhead get(Bulkhead.Type type) {
+        return bulkheads.get(type);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Bulkhead.Type type = classify(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+        if (type == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(type);
+        boolean entered;
+        try {
+            entered = bulkhead.tryEnter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+        if (!entered) {
+            reject(response, type);
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.exit();
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streaming responses keep their slot until they finish on another thread
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    static Bulkhead.Type classify(String method, String path) {
+        boolean read = "GET".equals(method);
+        if (path.startsWith("/api/auth/")) {
+            return Bulkhead.Type.AUTH;
+        }
+        if (path.equals("/api/events")) {
+            return Bulkhead.Type.EVENTS;
+        }
+        // Long scans and bulk writes
+        if (path.startsWith("/api/reports/")
+                || path.equals("/api/products/import")
+                || path.equals("/api/orders/repair-totals")
+                || (read && (path.equals("/api/orders")
+                || path.startsWith("/api/orders/status/")
+                || path.equals("/api/orders/date-range")
+                || path.equals("/api/orders/export")))) {
+            return Bulkhead.Type.REPORTING;
+        }
+        if (path.equals("/api/checkout")
+                || (!read && (path.equals("/api/orders") || path.startsWith("/api/orders/")))) {
+            return Bulkhead.Type.CHECKOUT;
+        }
+        boolean catalog = path.startsWith("/api/products") || path.startsWith("/api/customers");
+        if (!read && catalog) {
+            return Bulkhead.Type.ADMIN;
+        }
+        if (read && (catalog
+                || path.startsWith("/api/orders")
+                || path.startsWith("/api/dashboard"))) {
+            return Bulkhead.Type.CATALOG;
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, Bulkhead.Type type) throws IOException {
+        log.debug("Rejected request, {} bulkhead is full", type);
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "message", "Server is busy, please retry",
+                "code", "BULKHEAD_FULL",
+                "bulkhead", type.name()));
+    }
+
+    private static void register(Bulkhead bulkhead, MeterRegistry registry) {
+        String tag = bulkhead.getType().name().toLowerCase(Locale.ROOT);
+        Gauge.builder("boutique.bulkhead.active", bulkhead, Bulkhead::getActive).tag("bulkhead", tag)
+                .description("Requests running in the bulkhead").register(registry);
+        Gauge.builder("boutique.bulkhead.queued", bulkhead, Bulkhead::getQueued).tag("bulkhead", tag)
+                .description("Requests waiting for a bulkhead slot").register(registry);
+        Gauge.builder("boutique.bulkhead.limit", bulkhead, Bulkhead::getMaxConcurrent).tag("bulkhead", tag)
+                .description("Concurrent requests the bulkhead allows").register(registry);
+        Gauge.builder("boutique.bulkhead.saturation", bulkhead, Bulkhead::getSaturation).tag("bulkhead", tag)
+                .description("Share of the bulkhead's slots in use").register(registry);
+        FunctionCounter.builder("boutique.bulkhead.rejected", bulkhead, Bulkhead::getRejected).tag("bulkhead", tag)
+                .description("Requests turned away with 503").register(registry);
+    }
+
+    private record ReleasingListener(Runnable release) implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A re-dispatch that starts async again is still the same request
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.csis231.api.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps how many threads may wait for a pooled connection at once. The pool size already caps
+ * what PostgreSQL sees; this caps the queue in front of it, which with virtual threads is
+ * otherwise only bounded by the number of open requests. Callers past the cap fail at once
+ * instead of each waiting out the pool's connection timeout.
+ */
+public class ConnectionWaitLimitingDataSource extends DelegatingDataSource {
+
+    private final int maxWaiting;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public ConnectionWaitLimitingDataSource(DataSource target, int maxWaiting) {
+        super(target);
+        this.maxWaiting = maxWaiting;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        enter();
+        try {
+            return super.getConnection();
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        enter();
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    private void enter() throws SQLException {
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            throw new SQLTransientConnectionException(
+                    "More than " + maxWaiting + " threads are already waiting for a database connection");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.csis231.api.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Wraps the pooled DataSource so only a bounded number of threads queue for connections,
+     * and so each request's SQL statements and rows can be counted.
+     */
+    @Bean
+    public static BeanPostProcessor connectionWaitLimiter(@Value("${boutique.datasource.max-waiting:200}") int maxWaiting) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionWaitLimitingDataSource)) {
+                    return new ConnectionWaitLimitingDataSource(new SqlCountingDataSource(dataSource), maxWaiting);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionWaitMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionWaitLimitingDataSource limited) {
+                Gauge.builder("boutique.datasource.waiting", limited, ConnectionWaitLimitingDataSource::getWaiting)
+                        .description("Threads waiting for a database connection").register(registry);
+            }
+        };
+    }
+}
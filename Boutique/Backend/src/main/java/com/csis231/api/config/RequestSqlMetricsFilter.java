@@ -0,0 +1,53 @@
+package com.csis231.api.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran and how many rows it read, as
+ * boutique.request.sql.statements and boutique.request.sql.rows tagged with the request's
+ * method and route pattern. A jump in either for one route points at an N+1 or a missing
+ * filter. Work a streaming response does after the handler returns is not counted.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestSqlMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlCountingDataSource.Counts counts = SqlCountingDataSource.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlCountingDataSource.end(counts);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            // Unmatched paths share one tag so random URLs cannot create new meters
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            summary("boutique.request.sql.statements", "SQL statements run per request", request, uri)
+                    .record(counts.getStatements());
+            summary("boutique.request.sql.rows", "Result rows read per request", request, uri)
+                    .record(counts.getRows());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, HttpServletRequest request, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+}
@@ -1,5 +1,6 @@
 package com.csis231.api.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -20,8 +21,9 @@ import java.util.List;
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${boutique.auth.hash-threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int hashThreads) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), hashThreads);
     }
 
     @Bean
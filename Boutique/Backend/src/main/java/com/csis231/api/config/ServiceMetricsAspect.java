@@ -0,0 +1,67 @@
+package com.csis231.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the order, checkout, catalog, customer and auth services as
+ * boutique.service.method, tagged with service, method and outcome, with a percentile
+ * histogram. Runs outside the transaction advice, so the time includes the commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    // Success and error timer per method, so a call does not look them up in the registry
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * *(..)) && ("
+            + "within(com.csis231.api.service.OrderService) || "
+            + "within(com.csis231.api.service.OrderItemService) || "
+            + "within(com.csis231.api.service.CheckoutService) || "
+            + "within(com.csis231.api.service.ProductService) || "
+            + "within(com.csis231.api.service.CustomerService) || "
+            + "within(com.csis231.api.auth.AuthService))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer[] methodTimers = timers.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(), this::timersFor);
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            methodTimers[failed ? 1 : 0].record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer[] timersFor(Method method) {
+        return new Timer[]{timer(method, "success"), timer(method, "error")};
+    }
+
+    private Timer timer(Method method, String outcome) {
+        return Timer.builder("boutique.service.method")
+                .description("Time spent in service methods")
+                .tag("service", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
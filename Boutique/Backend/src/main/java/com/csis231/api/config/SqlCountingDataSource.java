@@ -0,0 +1,116 @@
+package com.csis231.api.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts the SQL statements executed and the result rows read on the current thread, for
+ * both Hibernate and JdbcTemplate. Nothing is counted unless {@link #begin()} was called on
+ * the thread; a batch counts as one statement, as it is one round trip.
+ */
+public class SqlCountingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    public SqlCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    /** Statements and rows since {@link #begin()}. */
+    public static final class Counts {
+        private long statements;
+        private long rows;
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+    }
+
+    /** Starts counting on this thread; the caller must pass the result to {@link #end}. */
+    public static Counts begin() {
+        Counts counts = new Counts();
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    public static void end(Counts counts) {
+        if (CURRENT.get() == counts) {
+            CURRENT.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, super.getConnection(username, password));
+    }
+
+    private static <T> T wrap(Class<T> type, T target) {
+        Object proxy = Proxy.newProxyInstance(SqlCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, new Counting(target));
+        return type.cast(proxy);
+    }
+
+    private record Counting(Object target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            String name = method.getName();
+            if (target instanceof ResultSet) {
+                if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                    Counts counts = CURRENT.get();
+                    if (counts != null) {
+                        counts.rows++;
+                    }
+                }
+                return result;
+            }
+            if (name.startsWith("execute")) {
+                Counts counts = CURRENT.get();
+                if (counts != null) {
+                    counts.statements++;
+                }
+            }
+            // Wrap what can execute SQL or return rows; everything else is returned as is
+            if (result instanceof CallableStatement statement) {
+                return wrap(CallableStatement.class, statement);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrap(PreparedStatement.class, statement);
+            }
+            if (result instanceof Statement statement && target instanceof Connection) {
+                return wrap(Statement.class, statement);
+            }
+            if (result instanceof ResultSet resultSet && (name.equals("executeQuery") || name.equals("getResultSet"))) {
+                return wrap(ResultSet.class, resultSet);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.csis231.api.controller;
+
+import com.csis231.api.dto.CheckoutRequestDto;
+import com.csis231.api.dto.OrderDto;
+import com.csis231.api.service.CheckoutService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/checkout")
+@RequiredArgsConstructor
+@Slf4j
+public class CheckoutController {
+
+    private final CheckoutService checkoutService;
+
+    @PostMapping
+    public ResponseEntity<?> checkout(@Valid @RequestBody CheckoutRequestDto request) {
+        try {
+            OrderDto order = checkoutService.checkout(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(order);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", e.getMessage(), "code", "CHECKOUT_FAILED"));
+        } catch (Exception e) {
+            log.error("Error during checkout", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Internal server error", "code", "INTERNAL_ERROR"));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.csis231.api.controller;
 
 import com.csis231.api.dto.CustomerDto;
+import com.csis231.api.service.CollectionVersionService;
 import com.csis231.api.service.CustomerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -19,10 +21,15 @@ import java.util.Map;
 public class CustomerController {
     
     private final CustomerService customerService;
+    private final CollectionVersionService collectionVersionService;
     
     @GetMapping
-    public ResponseEntity<List<CustomerDto>> getAllCustomers() {
+    public ResponseEntity<List<CustomerDto>> getAllCustomers(WebRequest request) {
         try {
+            String etag = collectionVersionService.etag(CollectionVersionService.Collection.CUSTOMERS);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
             List<CustomerDto> customers = customerService.getAllCustomers();
             return ResponseEntity.ok(customers);
         } catch (Exception e) {
@@ -31,6 +38,20 @@ public class CustomerController {
         }
     }
     
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) String since) {
+        try {
+            return ResponseEntity.ok(customerService.getChanges(since));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", e.getMessage(), "code", "INVALID_TOKEN"));
+        } catch (Exception e) {
+            log.error("Error fetching customer changes", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Internal server error", "code", "INTERNAL_ERROR"));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getCustomerById(@PathVariable Long id) {
         try {
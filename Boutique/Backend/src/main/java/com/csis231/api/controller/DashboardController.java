@@ -0,0 +1,32 @@
+package com.csis231.api.controller;
+
+import com.csis231.api.dto.DashboardSummaryDto;
+import com.csis231.api.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @GetMapping("/summary")
+    public ResponseEntity<?> getSummary() {
+        try {
+            DashboardSummaryDto summary = dashboardService.getSummary();
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            log.error("Error fetching dashboard summary", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Internal server error", "code", "INTERNAL_ERROR"));
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package com.csis231.api.controller;
 
 import com.csis231.api.dto.OrderDto;
+import com.csis231.api.dto.OrderPageDto;
 import com.csis231.api.entity.Order;
+import com.csis231.api.service.CollectionVersionService;
+import com.csis231.api.service.OrderExportService;
 import com.csis231.api.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -21,10 +30,18 @@ import java.util.Map;
 public class OrderController {
     
     private final OrderService orderService;
+    private final CollectionVersionService collectionVersionService;
+    private final OrderExportService orderExportService;
+    private final ObjectMapper objectMapper;
     
     @GetMapping
-    public ResponseEntity<List<OrderDto>> getAllOrders() {
+    public ResponseEntity<List<OrderDto>> getAllOrders(WebRequest request) {
         try {
+            // Taken before the query so a concurrent commit can only make the tag older, never newer
+            String etag = collectionVersionService.etag(CollectionVersionService.Collection.ORDERS);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
             List<OrderDto> orders = orderService.getAllOrders();
             return ResponseEntity.ok(orders);
         } catch (Exception e) {
@@ -33,6 +50,54 @@ public class OrderController {
         }
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<?> getOrdersPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) LocalDateTime from,
+            @RequestParam(required = false) LocalDateTime to,
+            @RequestParam(required = false) BigDecimal minTotal,
+            @RequestParam(required = false) BigDecimal maxTotal) {
+        try {
+            OrderPageDto page = orderService.getOrdersPage(after, limit, status, customerId, from, to, minTotal, maxTotal);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", e.getMessage(), "code", "INVALID_CURSOR"));
+        } catch (Exception e) {
+            log.error("Error fetching orders page", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Internal server error", "code", "INTERNAL_ERROR"));
+        }
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) String since) {
+        try {
+            return ResponseEntity.ok(orderService.getChanges(since));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", e.getMessage(), "code", "INVALID_TOKEN"));
+        } catch (Exception e) {
+            log.error("Error fetching order changes", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Internal server error", "code", "INTERNAL_ERROR"));
+        }
+    }
+
+    @PostMapping("/repair-totals")
+    public ResponseEntity<?> repairTotals() {
+        try {
+            return ResponseEntity.ok(Map.of("repaired", orderService.repairTotals()));
+        } catch (Exception e) {
+            log.error("Error repairing order totals", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Internal server error", "code", "INTERNAL_ERROR"));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getOrderById(@PathVariable Long id) {
         try {
@@ -72,6 +137,38 @@ public class OrderController {
         }
     }
     
+    /** Streams the orders placed in [from, to) as NDJSON (default) or CSV without building them in memory. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam LocalDateTime from,
+            @RequestParam LocalDateTime to,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return exportError("Format must be ndjson or csv", "INVALID_FORMAT");
+        }
+        if (!from.isBefore(to)) {
+            return exportError("from must be before to", "INVALID_RANGE");
+        }
+
+        StreamingResponseBody body = out -> orderExportService.exportOrders(from, to, exportFormat, out);
+        boolean csv = exportFormat == OrderExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    // A streaming endpoint must declare StreamingResponseBody, so its errors are streamed too
+    private ResponseEntity<StreamingResponseBody> exportError(String message, String code) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, Map.of("message", message, "code", code)));
+    }
+
     @PostMapping
     public ResponseEntity<?> createOrder(@Valid @RequestBody OrderDto orderDto) {
         try {
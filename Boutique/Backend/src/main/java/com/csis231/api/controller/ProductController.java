@@ -1,15 +1,23 @@
 package com.csis231.api.controller;
 
 import com.csis231.api.dto.ProductDto;
+import com.csis231.api.dto.ProductImportResultDto;
 import com.csis231.api.entity.ProductCategory;
+import com.csis231.api.service.CollectionVersionService;
+import com.csis231.api.service.DashboardService;
+import com.csis231.api.service.ProductImportService;
 import com.csis231.api.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -20,10 +28,17 @@ import java.util.Map;
 public class ProductController {
 
     private final ProductService productService;
+    private final DashboardService dashboardService;
+    private final CollectionVersionService collectionVersionService;
+    private final ProductImportService productImportService;
 
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
+    public ResponseEntity<List<ProductDto>> getAllProducts(WebRequest request) {
         try {
+            String etag = collectionVersionService.etag(CollectionVersionService.Collection.PRODUCTS);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
             List<ProductDto> products = productService.getAllProducts();
             return ResponseEntity.ok(products);
         } catch (Exception e) {
@@ -32,6 +47,20 @@ public class ProductController {
         }
     }
 
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) String since) {
+        try {
+            return ResponseEntity.ok(productService.getChanges(since));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", e.getMessage(), "code", "INVALID_TOKEN"));
+        } catch (Exception e) {
+            log.error("Error fetching product changes", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Internal server error", "code", "INTERNAL_ERROR"));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getProductById(@PathVariable Long id) {
         try {
@@ -63,8 +92,12 @@ public class ProductController {
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<ProductDto>> getAvailableProducts() {
+    public ResponseEntity<List<ProductDto>> getAvailableProducts(WebRequest request) {
         try {
+            String etag = collectionVersionService.etag(CollectionVersionService.Collection.PRODUCTS);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
             List<ProductDto> products = productService.getAvailableProducts();
             return ResponseEntity.ok(products);
         } catch (Exception e) {
@@ -73,6 +106,18 @@ public class ProductController {
         }
     }
 
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<ProductDto>> getLowStockProducts(@RequestParam(required = false) Integer threshold) {
+        try {
+            int limit = threshold == null ? dashboardService.getLowStockThreshold() : threshold;
+            List<ProductDto> products = productService.getLowStockProducts(limit);
+            return ResponseEntity.ok(products);
+        } catch (Exception e) {
+            log.error("Error fetching low stock products", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<?> createProduct(@Valid @RequestBody ProductDto productDto) {
         try {
@@ -85,6 +130,24 @@ public class ProductController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = {ProductImportService.CSV, ProductImportService.NDJSON})
+    public ResponseEntity<?> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                            InputStream body) {
+        try {
+            // Drop parameters such as charset; the body is always read as UTF-8
+            MediaType type = MediaType.parseMediaType(contentType);
+            ProductImportResultDto result = productImportService.importProducts(body, type.getType() + "/" + type.getSubtype());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", e.getMessage(), "code", "INVALID_IMPORT"));
+        } catch (Exception e) {
+            log.error("Error importing products", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Import failed: " + e.getMessage(), "code", "IMPORT_FAILED"));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDto productDto) {
         try {
@@ -0,0 +1,154 @@
+package com.csis231.api.controller;
+
+import com.csis231.api.dto.SalesReportDto;
+import com.csis231.api.entity.ProductCategory;
+import com.csis231.api.service.DailySalesService;
+import com.csis231.api.service.ReportService;
+import com.csis231.api.service.SalesAnalyticsService;
+import com.csis231.api.service.TopProductsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@Slf4j
+public class ReportController {
+
+    private final ReportService reportService;
+    private final SalesAnalyticsService salesAnalyticsService;
+    private final DailySalesService dailySalesService;
+    private final TopProductsService topProductsService;
+
+    @GetMapping("/sales")
+    public ResponseEntity<?> getSalesReport(
+            @RequestParam LocalDateTime from,
+            @RequestParam LocalDateTime to,
+            @RequestParam(defaultValue = "product") String groupBy) {
+        SalesReportDto.GroupBy grouping;
+        try {
+            grouping = SalesReportDto.GroupBy.valueOf(groupBy.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Invalid groupBy, expected product, category or day", "code", "INVALID_GROUP_BY"));
+        }
+
+        try {
+            SalesReportDto report = reportService.getSalesReport(from, to, grouping);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", e.getMessage(), "code", "INVALID_DATE_RANGE"));
+        } catch (Exception e) {
+            log.error("Error building sales report", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Internal server error", "code", "INTERNAL_ERROR"));
+        }
+    }
+
+    /** Same report shape as /sales, limited to fulfilled orders and read from the daily_sales rollup. */
+    @GetMapping("/daily-sales")
+    public ResponseEntity<?> getDailySalesReport(
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to,
+            @RequestParam(defaultValue = "product") String groupBy) {
+        SalesReportDto.GroupBy grouping;
+        try {
+            grouping = SalesReportDto.GroupBy.valueOf(groupBy.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Invalid groupBy, expected product, category or day", "code", "INVALID_GROUP_BY"));
+        }
+
+        try {
+            SalesReportDto report = dailySalesService.getReport(from, to, grouping);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", e.getMessage(), "code", "INVALID_DATE_RANGE"));
+        } catch (Exception e) {
+            log.error("Error building daily sales report", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Internal server error", "code", "INTERNAL_ERROR"));
+        }
+    }
+
+    @PostMapping("/daily-sales/rebuild")
+    public ResponseEntity<?> rebuildDailySales() {
+        try {
+            return ResponseEntity.ok(Map.of("rows", dailySalesService.rebuild()));
+        } catch (Exception e) {
+            log.error("Error rebuilding daily sales rollup", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Internal server error", "code", "INTERNAL_ERROR"));
+        }
+    }
+
+    /** Same report shape as /sales, limited to fulfilled orders and served from memory. */
+    @GetMapping("/fulfilled-sales")
+    public ResponseEntity<?> getFulfilledSalesReport(
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to,
+            @RequestParam(defaultValue = "product") String groupBy,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long productId) {
+        SalesReportDto.GroupBy grouping;
+        try {
+            grouping = SalesReportDto.GroupBy.valueOf(groupBy.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Invalid groupBy, expected product, category or day", "code", "INVALID_GROUP_BY"));
+        }
+
+        ProductCategory productCategory = null;
+        if (category != null && !category.isBlank()) {
+            try {
+                productCategory = ProductCategory.valueOf(category.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("message", "Invalid category: " + category, "code", "INVALID_CATEGORY"));
+            }
+        }
+
+        try {
+            SalesReportDto report = salesAnalyticsService.getFulfilledSalesReport(from, to, grouping, productCategory, productId);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", e.getMessage(), "code", "INVALID_DATE_RANGE"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", e.getMessage(), "code", "ANALYTICS_LOADING"));
+        } catch (Exception e) {
+            log.error("Error building fulfilled sales report", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Internal server error", "code", "INTERNAL_ERROR"));
+        }
+    }
+
+    @GetMapping("/top-products")
+    public ResponseEntity<?> getTopProducts(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(topProductsService.getTopProducts(days, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", e.getMessage(), "code", "INVALID_WINDOW"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", e.getMessage(), "code", "TOP_PRODUCTS_LOADING"));
+        } catch (Exception e) {
+            log.error("Error building top products", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Internal server error", "code", "INTERNAL_ERROR"));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.csis231.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * One entry of the /api/events stream. Carries just enough for a screen to decide what to
+ * refresh; the rows themselves are fetched through the /changes endpoints.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeNotificationDto {
+    // ORDER, PRODUCT or CUSTOMER
+    private String type;
+
+    private Long id;
+
+    // CREATED, UPDATED, DELETED, plus FULFILLED and ITEMS for orders and STOCK for products
+    private String action;
+
+    private String status;
+
+    private Integer stockQty;
+}
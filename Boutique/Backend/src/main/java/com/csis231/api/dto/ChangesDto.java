@@ -0,0 +1,24 @@
+package com.csis231.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangesDto<T> {
+    // Pass back as ?since= on the next call
+    private String token;
+
+    // True when upserted holds the whole collection and the client should replace its copy
+    private boolean full;
+
+    // True when the client should reload its first page instead; upserted and deleted are empty
+    private boolean resync;
+
+    private List<T> upserted;
+
+    private List<Long> deleted;
+}
@@ -0,0 +1,40 @@
+package com.csis231.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckoutRequestDto {
+    @NotNull
+    private Long customerId;
+
+    private String description;
+
+    @NotEmpty
+    @Valid
+    private List<LineDto> lines;
+
+    /** When true the order is stored as FULFILLED instead of PENDING. */
+    private boolean fulfill;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LineDto {
+        @NotNull
+        private Long productId;
+
+        @NotNull
+        @Min(value = 1, message = "Quantity must be greater than 0")
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,29 @@
+package com.csis231.api.dto;
+
+import com.csis231.api.entity.Order;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardSummaryDto {
+    private long totalOrders;
+
+    private long pendingOrders;
+
+    private long fulfilledOrders;
+
+    private Map<Order.OrderStatus, Long> ordersByStatus;
+
+    private BigDecimal inventoryValue;
+
+    private long lowStockCount;
+
+    private int lowStockThreshold;
+
+    private long totalCustomers;
+}
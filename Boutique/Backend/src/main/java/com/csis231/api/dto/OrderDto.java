@@ -31,4 +31,6 @@ public class OrderDto {
 
     private BigDecimal total;
 
+    private Integer unitCount;
+
 }
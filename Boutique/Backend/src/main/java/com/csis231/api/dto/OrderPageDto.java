@@ -0,0 +1,21 @@
+package com.csis231.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageDto {
+    private List<OrderDto> orders;
+
+    // Pass back as ?after= to fetch the next page; null when this is the last page
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    // Pass as ?since= to /api/orders/changes to pick up writes made after this page was read
+    private String syncToken;
+}
@@ -0,0 +1,34 @@
+package com.csis231.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportResultDto {
+    /** Data rows read, excluding the CSV header and blank lines. */
+    private long processed;
+
+    private long inserted;
+
+    private long updated;
+
+    private long failed;
+
+    /** The first rejected rows; failed holds the full count. */
+    private List<RowErrorDto> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowErrorDto {
+        /** 1-based line number in the uploaded body. */
+        private long line;
+
+        private String message;
+    }
+}
@@ -0,0 +1,34 @@
+package com.csis231.api.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesReportDto {
+    private LocalDateTime from;
+
+    // Exclusive: the start of the day after the last one reported
+    private LocalDateTime to;
+
+    private GroupBy groupBy;
+
+    private List<SalesReportRowDto> rows;
+
+    private long totalOrders;
+
+    private long totalItemsSold;
+
+    private BigDecimal totalRevenue;
+
+    public enum GroupBy {
+        PRODUCT,
+        CATEGORY,
+        DAY
+    }
+}
@@ -0,0 +1,42 @@
+package com.csis231.api.dto;
+
+import com.csis231.api.entity.ProductCategory;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SalesReportRowDto {
+    private Long productId;
+
+    private String productName;
+
+    private ProductCategory category;
+
+    private LocalDate day;
+
+    private Long quantitySold;
+
+    private BigDecimal revenue;
+
+    // Constructors below are used by the JPQL aggregate queries in OrderItemRepository
+
+    public SalesReportRowDto(Long productId, String productName, ProductCategory category,
+                             Long quantitySold, BigDecimal revenue) {
+        this(productId, productName, category, null, quantitySold, revenue);
+    }
+
+    public SalesReportRowDto(ProductCategory category, Long quantitySold, BigDecimal revenue) {
+        this(null, null, category, null, quantitySold, revenue);
+    }
+
+    public SalesReportRowDto(LocalDate day, Long quantitySold, BigDecimal revenue) {
+        this(null, null, null, day, quantitySold, revenue);
+    }
+}
@@ -0,0 +1,43 @@
+package com.csis231.api.dto;
+
+import com.csis231.api.entity.ProductCategory;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TopProductsDto {
+    private LocalDate from;
+
+    private LocalDate to;
+
+    /** Units in all fulfilled orders placed in the window. */
+    private long totalUnits;
+
+    /** Largest amount by which any units figure below can overstate the truth. */
+    private long maxError;
+
+    private List<EntryDto> products;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class EntryDto {
+        private Long productId;
+
+        private String productName;
+
+        private ProductCategory category;
+
+        /** Upper bound on units sold in the window. */
+        private long units;
+
+        /** Lower bound on units sold in the window. */
+        private long minUnits;
+    }
+}
@@ -0,0 +1,47 @@
+package com.csis231.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed change to a product, customer or order, written by ChangeLogService.
+ * txId is the writing PostgreSQL transaction id and is what sync tokens are compared against.
+ */
+@Entity
+@jakarta.persistence.Table(name = "change_log", indexes = {
+        @Index(name = "idx_change_log_type_tx", columnList = "entity_type, tx_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(name = "tx_id", nullable = false)
+    private Long txId;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public enum EntityType {
+        PRODUCT,
+        CUSTOMER,
+        ORDER
+    }
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -20,13 +21,18 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_placed_at_id", columnList = "placed_at, order_id"),
+        @Index(name = "idx_orders_status_placed_at_id", columnList = "o_status, placed_at, order_id"),
+        @Index(name = "idx_orders_customer_placed_at_id", columnList = "customer_id, placed_at, order_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -60,14 +66,20 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems;
 
-    public BigDecimal getTotal() {
-        if (orderItems == null || orderItems.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        return orderItems.stream()
-                .map(OrderItem::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
+    // Sum of item subtotals and units, kept in step by OrderRepository.adjustTotals. Only
+    // written on insert so saving a stale Order can never undo a concurrent item change.
+    @NotNull
+    @ColumnDefault("0")
+    @Column(name = "total", nullable = false, precision = 12, scale = 2, updatable = false)
+    @Builder.Default
+    private BigDecimal total = BigDecimal.ZERO;
+
+    // Sum of item quantities, not the number of lines
+    @NotNull
+    @ColumnDefault("0")
+    @Column(name = "unit_count", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer unitCount = 0;
 
     @PrePersist
     void onCreate() {
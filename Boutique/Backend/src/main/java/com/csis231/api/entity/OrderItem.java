@@ -9,7 +9,10 @@ import lombok.*;
 import java.math.BigDecimal;
 
 @Entity
-@jakarta.persistence.Table(name = "order_items")
+@jakarta.persistence.Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order_id", columnList = "order_id"),
+        @Index(name = "idx_order_items_product_id", columnList = "product_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
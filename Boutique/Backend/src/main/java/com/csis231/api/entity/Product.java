@@ -10,7 +10,10 @@ import lombok.*;
 import java.math.BigDecimal;
 
 @Entity
-@jakarta.persistence.Table(name = "products")
+@jakarta.persistence.Table(name = "products", indexes = {
+        @Index(name = "idx_products_stock_qty", columnList = "stock_qty"),
+        @Index(name = "idx_products_name", columnList = "name")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,14 @@
+package com.csis231.api.event;
+
+import com.csis231.api.dto.CustomerDto;
+
+/**
+ * Published inside the writing transaction whenever a customer is created, updated or deleted.
+ * before is null for a new customer and after is null for a deleted one.
+ */
+public record CustomerChangedEvent(Long customerId, CustomerDto before, CustomerDto after) {
+
+    public boolean isDeleted() {
+        return after == null;
+    }
+}
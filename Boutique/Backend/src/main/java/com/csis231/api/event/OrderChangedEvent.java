@@ -0,0 +1,19 @@
+package com.csis231.api.event;
+
+import com.csis231.api.entity.Order;
+
+/**
+ * Published inside the writing transaction whenever an order is created, changes status, has its
+ * items changed or is deleted. previousStatus is null for a new order and status is null for a
+ * deleted one; an item change carries the same status twice.
+ */
+public record OrderChangedEvent(Long orderId, Order.OrderStatus previousStatus, Order.OrderStatus status) {
+
+    public boolean isCreated() {
+        return previousStatus == null && status != null;
+    }
+
+    public boolean isDeleted() {
+        return status == null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.csis231.api.event;
+
+import com.csis231.api.dto.ProductDto;
+
+/**
+ * Published inside the writing transaction whenever a product or its stock changes.
+ * before is null for a new product and after is null for a deleted one.
+ */
+public record ProductChangedEvent(Long productId, ProductDto before, ProductDto after) {
+
+    public boolean isDeleted() {
+        return after == null;
+    }
+}
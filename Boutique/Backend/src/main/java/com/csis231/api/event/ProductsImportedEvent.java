@@ -0,0 +1,14 @@
+package com.csis231.api.event;
+
+import java.util.List;
+
+/**
+ * Published once per committed import chunk in place of one {@link ProductChangedEvent} per
+ * row. Listeners that keep per-product state can replay the changes; the rest refresh once.
+ */
+public record ProductsImportedEvent(List<ProductChangedEvent> changes) {
+
+    public List<Long> productIds() {
+        return changes.stream().map(ProductChangedEvent::productId).toList();
+    }
+}
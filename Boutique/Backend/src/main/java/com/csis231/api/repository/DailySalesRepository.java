@@ -0,0 +1,79 @@
+package com.csis231.api.repository;
+
+import com.csis231.api.dto.SalesReportRowDto;
+import com.csis231.api.entity.DailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRepository extends JpaRepository<DailySales, DailySales.Key> {
+
+    /** Adds the lines of one order to the rollup rows of the day it was placed. */
+    @Modifying
+    @Query(value = "insert into daily_sales (day, product_id, category, units, revenue) "
+            + "select cast(o.placed_at as date), i.product_id, p.category, sum(i.quantity), sum(i.subtotal) "
+            + "from orders o "
+            + "join order_items i on i.order_id = o.order_id "
+            + "join products p on p.product_id = i.product_id "
+            + "where o.order_id = :orderId "
+            + "group by cast(o.placed_at as date), i.product_id, p.category "
+            // Same row order in every transaction, so concurrent fulfilments cannot deadlock
+            + "order by i.product_id, p.category "
+            + "on conflict (day, product_id, category) do update set "
+            + "units = daily_sales.units + excluded.units, revenue = daily_sales.revenue + excluded.revenue",
+            nativeQuery = true)
+    int addOrder(@Param("orderId") Long orderId);
+
+    /** Blocks fulfilments from writing the rollup until the calling transaction ends. */
+    @Modifying
+    @Query(value = "lock table daily_sales in exclusive mode", nativeQuery = true)
+    void lockTable();
+
+    @Modifying
+    @Query(value = "delete from daily_sales", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "insert into daily_sales (day, product_id, category, units, revenue) "
+            + "select cast(o.placed_at as date), i.product_id, p.category, sum(i.quantity), sum(i.subtotal) "
+            + "from orders o "
+            + "join order_items i on i.order_id = o.order_id "
+            + "join products p on p.product_id = i.product_id "
+            + "where o.o_status = 'FULFILLED' "
+            + "group by cast(o.placed_at as date), i.product_id, p.category",
+            nativeQuery = true)
+    int insertFromFulfilledOrders();
+
+    @Query("""
+            select new com.csis231.api.dto.SalesReportRowDto(d.productId, p.name, d.category, sum(d.units), sum(d.revenue))
+            from DailySales d left join Product p on p.productId = d.productId
+            where d.day between :from and :to
+            group by d.productId, p.name, d.category
+            order by sum(d.revenue) desc
+            """)
+    List<SalesReportRowDto> sumByProduct(LocalDate from, LocalDate to);
+
+    @Query("""
+            select new com.csis231.api.dto.SalesReportRowDto(d.category, sum(d.units), sum(d.revenue))
+            from DailySales d
+            where d.day between :from and :to
+            group by d.category
+            order by sum(d.revenue) desc
+            """)
+    List<SalesReportRowDto> sumByCategory(LocalDate from, LocalDate to);
+
+    @Query("""
+            select new com.csis231.api.dto.SalesReportRowDto(d.day, sum(d.units), sum(d.revenue))
+            from DailySales d
+            where d.day between :from and :to
+            group by d.day
+            order by d.day
+            """)
+    List<SalesReportRowDto> sumByDay(LocalDate from, LocalDate to);
+}
@@ -1,14 +1,45 @@
 package com.csis231.api.repository;
 
+import com.csis231.api.dto.SalesReportRowDto;
 import com.csis231.api.entity.Order;
 import com.csis231.api.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrder(Order order);
     void deleteByOrder(Order order);
+
+    // Sales report ranges are [from, to), like the order page and export filters
+    @Query("""
+            select new com.csis231.api.dto.SalesReportRowDto(p.productId, p.name, p.category, sum(i.quantity), sum(i.subtotal))
+            from OrderItem i join i.order o join i.product p
+            where o.placedAt >= :from and o.placedAt < :to
+            group by p.productId, p.name, p.category
+            order by sum(i.subtotal) desc
+            """)
+    List<SalesReportRowDto> sumSalesByProduct(LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+            select new com.csis231.api.dto.SalesReportRowDto(p.category, sum(i.quantity), sum(i.subtotal))
+            from OrderItem i join i.order o join i.product p
+            where o.placedAt >= :from and o.placedAt < :to
+            group by p.category
+            order by sum(i.subtotal) desc
+            """)
+    List<SalesReportRowDto> sumSalesByCategory(LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+            select new com.csis231.api.dto.SalesReportRowDto(cast(o.placedAt as LocalDate), sum(i.quantity), sum(i.subtotal))
+            from OrderItem i join i.order o
+            where o.placedAt >= :from and o.placedAt < :to
+            group by cast(o.placedAt as LocalDate)
+            order by cast(o.placedAt as LocalDate)
+            """)
+    List<SalesReportRowDto> sumSalesByDay(LocalDateTime from, LocalDateTime to);
 }
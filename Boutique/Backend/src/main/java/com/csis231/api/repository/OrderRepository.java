@@ -1,14 +1,99 @@
 package com.csis231.api.repository;
 
 import com.csis231.api.entity.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+    // Read paths that build OrderDto fetch the customer and items in the same query
+    @EntityGraph(attributePaths = {"customer", "orderItems"})
+    @Query("select o from Order o")
+    List<Order> findAllWithCustomerAndItems();
+
+    @EntityGraph(attributePaths = {"customer", "orderItems"})
+    Optional<Order> findWithCustomerAndItemsByOrderId(Long orderId);
+
+    /**
+     * Loads the order and locks its row until commit. Status changes and item writes take this
+     * lock first, so an item can never land on an order that is being fulfilled or cancelled.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.orderId = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long orderId);
+
+    @EntityGraph(attributePaths = {"customer", "orderItems"})
+    List<Order> findByOrderIdIn(Collection<Long> orderIds);
+
+    @EntityGraph(attributePaths = {"customer", "orderItems"})
     List<Order> findByStatus(Order.OrderStatus status);
+
+    @EntityGraph(attributePaths = {"customer", "orderItems"})
     List<Order> findByPlacedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Forward-only cursor over the orders placed in [from, to), with customer and items, for
+     * exports. Rows of one order arrive together, and the driver holds only one fetch of rows
+     * at a time. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o join fetch o.customer left join fetch o.orderItems "
+            + "where o.placedAt >= :from and o.placedAt < :to order by o.placedAt, o.orderId")
+    Stream<Order> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    long countByPlacedAtGreaterThanEqualAndPlacedAtLessThan(LocalDateTime from, LocalDateTime to);
+
+    long countByStatusAndPlacedAtGreaterThanEqualAndPlacedAtLessThan(Order.OrderStatus status,
+                                                                     LocalDateTime from, LocalDateTime to);
+
+    long countByStatus(Order.OrderStatus status);
+
+    /**
+     * Applies an item change to the stored total and unit count. Relative rather than absolute,
+     * so concurrent changes to the same order add up instead of overwriting each other.
+     */
+    @Modifying
+    @Query(value = "update orders set total = total + :amount, unit_count = unit_count + :units "
+            + "where order_id = :id", nativeQuery = true)
+    int adjustTotals(@Param("id") Long orderId, @Param("amount") BigDecimal amount, @Param("units") int units);
+
+    @Query(value = "select o.order_id from orders o "
+            + "left join (select order_id, sum(subtotal) as total, sum(quantity) as units "
+            + "           from order_items group by order_id) i on i.order_id = o.order_id "
+            + "where o.total <> coalesce(i.total, 0) or o.unit_count <> coalesce(i.units, 0) "
+            + "order by o.order_id", nativeQuery = true)
+    List<Long> findIdsWithStaleTotals();
+
+    // Row locks make the recompute below see every committed item; item writers lock the same rows
+    @Query(value = "select order_id from orders where order_id in (:ids) order by order_id for update",
+            nativeQuery = true)
+    List<Long> lockByOrderIdIn(@Param("ids") Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "update orders o set "
+            + "total = (select coalesce(sum(i.subtotal), 0) from order_items i where i.order_id = o.order_id), "
+            + "unit_count = (select coalesce(sum(i.quantity), 0) from order_items i where i.order_id = o.order_id) "
+            + "where o.order_id in (:ids)", nativeQuery = true)
+    int recomputeTotals(@Param("ids") Collection<Long> orderIds);
 }
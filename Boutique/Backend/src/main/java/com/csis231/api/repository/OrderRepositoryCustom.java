@@ -0,0 +1,25 @@
+package com.csis231.api.repository;
+
+import com.csis231.api.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Keyset page of orders, newest first. Only the filters that are non-null are applied and
+     * the page starts strictly after (afterPlacedAt, afterId) when a cursor is given. Items are
+     * not loaded; the stored total and unit count describe each order.
+     */
+    List<Order> findPageAfter(Order.OrderStatus status,
+                              Long customerId,
+                              LocalDateTime from,
+                              LocalDateTime to,
+                              BigDecimal minTotal,
+                              BigDecimal maxTotal,
+                              LocalDateTime afterPlacedAt,
+                              Long afterId,
+                              int limit);
+}
@@ -0,0 +1,68 @@
+package com.csis231.api.repository;
+
+import com.csis231.api.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Order> findPageAfter(Order.OrderStatus status,
+                                     Long customerId,
+                                     LocalDateTime from,
+                                     LocalDateTime to,
+                                     BigDecimal minTotal,
+                                     BigDecimal maxTotal,
+                                     LocalDateTime afterPlacedAt,
+                                     Long afterId,
+                                     int limit) {
+        StringBuilder jpql = new StringBuilder("select o from Order o join fetch o.customer c where 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (status != null) {
+            jpql.append(" and o.status = :status");
+            params.put("status", status);
+        }
+        if (customerId != null) {
+            jpql.append(" and c.customerId = :customerId");
+            params.put("customerId", customerId);
+        }
+        if (from != null) {
+            jpql.append(" and o.placedAt >= :from");
+            params.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" and o.placedAt < :to");
+            params.put("to", to);
+        }
+        if (minTotal != null) {
+            jpql.append(" and o.total >= :minTotal");
+            params.put("minTotal", minTotal);
+        }
+        if (maxTotal != null) {
+            jpql.append(" and o.total <= :maxTotal");
+            params.put("maxTotal", maxTotal);
+        }
+        if (afterPlacedAt != null && afterId != null) {
+            // Row comparison lets Postgres seek straight into the (placed_at, order_id) index
+            jpql.append(" and (o.placedAt, o.orderId) < (:afterPlacedAt, :afterId)");
+            params.put("afterPlacedAt", afterPlacedAt);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" order by o.placedAt desc, o.orderId desc");
+
+        TypedQuery<Order> query = entityManager.createQuery(jpql.toString(), Order.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
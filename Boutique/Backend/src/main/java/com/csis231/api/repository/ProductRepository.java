@@ -1,14 +1,50 @@
 package com.csis231.api.repository;
 
+import com.csis231.api.dto.ProductDto;
 import com.csis231.api.entity.Product;
 import com.csis231.api.entity.ProductCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategory(ProductCategory category);
     List<Product> findByStockQtyGreaterThan(Integer stockQty);
+    List<Product> findByStockQtyLessThanEqualOrderByStockQtyAsc(Integer stockQty);
+    long countByStockQtyLessThanEqual(Integer stockQty);
+
+    @Query("select coalesce(sum(p.price * p.stockQty), 0) from Product p")
+    BigDecimal sumInventoryValue();
+
+    /**
+     * Takes {@code qty} units out of stock in a single conditional UPDATE.
+     * Returns 0 when the product is missing or has fewer than {@code qty} units,
+     * so concurrent callers can never drive stock below zero.
+     */
+    @Modifying
+    @Query("update Product p set p.stockQty = p.stockQty - :qty where p.productId = :id and p.stockQty >= :qty")
+    int reserveStock(@Param("id") Long productId, @Param("qty") int qty);
+
+    @Modifying
+    @Query("update Product p set p.stockQty = p.stockQty + :qty where p.productId = :id")
+    int releaseStock(@Param("id") Long productId, @Param("qty") int qty);
+
+    /** Snapshots read straight from the database, bypassing any entities held by the current session. */
+    @Query("select new com.csis231.api.dto.ProductDto(p.productId, p.name, p.category, p.price, p.stockQty) "
+            + "from Product p order by p.productId")
+    List<ProductDto> findAllSnapshots();
+
+    @Query("select new com.csis231.api.dto.ProductDto(p.productId, p.name, p.category, p.price, p.stockQty) "
+            + "from Product p where p.productId = :id")
+    Optional<ProductDto> findSnapshotById(@Param("id") Long productId);
+
+    @Query("select p.stockQty from Product p where p.productId = :id")
+    Integer findStockQtyById(@Param("id") Long productId);
 }
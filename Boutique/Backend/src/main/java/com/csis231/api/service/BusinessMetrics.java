@@ -0,0 +1,62 @@
+package com.csis231.api.service;
+
+import com.csis231.api.entity.Order;
+import com.csis231.api.event.OrderChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Business throughput counters exposed through actuator: orders created and fulfilled and
+ * items added count only once their transaction commits; failed stock reservations count
+ * when they happen, as their transaction always rolls back.
+ */
+@Service
+public class BusinessMetrics {
+
+    private final Counter ordersCreated;
+    private final Counter ordersFulfilled;
+    private final Counter itemsAdded;
+    private final Counter stockReservationsFailed;
+
+    public BusinessMetrics(MeterRegistry meterRegistry) {
+        ordersCreated = Counter.builder("boutique.orders.created")
+                .description("Orders created").register(meterRegistry);
+        ordersFulfilled = Counter.builder("boutique.orders.fulfilled")
+                .description("Orders moved to FULFILLED").register(meterRegistry);
+        itemsAdded = Counter.builder("boutique.orders.items.added")
+                .description("Order lines added, by checkout or to a pending order").register(meterRegistry);
+        stockReservationsFailed = Counter.builder("boutique.stock.reservations.failed")
+                .description("Order lines rejected for insufficient stock").register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.isCreated()) {
+            ordersCreated.increment();
+        }
+        if (event.status() == Order.OrderStatus.FULFILLED && event.previousStatus() != Order.OrderStatus.FULFILLED) {
+            ordersFulfilled.increment();
+        }
+    }
+
+    public void itemsAdded(int count) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            itemsAdded.increment(count);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                itemsAdded.increment(count);
+            }
+        });
+    }
+
+    public void stockReservationFailed() {
+        stockReservationsFailed.increment();
+    }
+}
@@ -0,0 +1,268 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.ChangeNotificationDto;
+import com.csis231.api.dto.CustomerDto;
+import com.csis231.api.dto.ProductDto;
+import com.csis231.api.entity.Order;
+import com.csis231.api.event.CustomerChangedEvent;
+import com.csis231.api.event.OrderChangedEvent;
+import com.csis231.api.event.ProductChangedEvent;
+import com.csis231.api.event.ProductsImportedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed order, product and customer changes to every open /api/events stream.
+ * Each change is serialized once and queued for every subscriber; each subscriber has its own
+ * bounded queue drained by its own virtual thread, so a commit never waits on subscribers and a
+ * slow client only delays itself. A client that falls a full queue behind is disconnected and
+ * re-syncs through the /changes endpoints when it reconnects.
+ */
+@Service
+@Slf4j
+public class ChangeFeedService {
+
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+    private final int queueSize;
+    private final Counter lagging;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "change-feed-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("change-feed-", 0).factory());
+
+    public ChangeFeedService(ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${boutique.events.timeout-ms:1800000}") long emitterTimeoutMs,
+                             @Value("${boutique.events.heartbeat-seconds:20}") long heartbeatSeconds,
+                             @Value("${boutique.events.queue-size:256}") int queueSize) {
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.queueSize = queueSize;
+        Gauge.builder("boutique.events.subscribers", subscribers, List::size)
+                .description("Open change feed streams").register(meterRegistry);
+        this.lagging = Counter.builder("boutique.events.lagging")
+                .description("Change feed streams closed because the client fell behind").register(meterRegistry);
+        // Heartbeats keep proxies from closing idle streams and flush out dead clients
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, queueSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        try {
+            // Commits the response headers right away so the client knows it is connected
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        String action;
+        if (event.isDeleted()) {
+            action = "DELETED";
+        } else if (event.isCreated()) {
+            action = "CREATED";
+        } else if (event.previousStatus() == event.status()) {
+            action = "ITEMS";
+        } else if (event.status() == Order.OrderStatus.FULFILLED) {
+            action = "FULFILLED";
+        } else {
+            action = "UPDATED";
+        }
+        publish(ChangeNotificationDto.builder()
+                .type("ORDER")
+                .id(event.orderId())
+                .action(action)
+                .status(event.status() == null ? null : event.status().name())
+                .build());
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductDto before = event.before();
+        ProductDto after = event.after();
+        String action;
+        if (after == null) {
+            action = "DELETED";
+        } else if (before == null) {
+            action = "CREATED";
+        } else if (Objects.equals(before.getName(), after.getName())
+                && before.getCategory() == after.getCategory()
+                && Objects.equals(before.getPrice(), after.getPrice())) {
+            action = "STOCK";
+        } else {
+            action = "UPDATED";
+        }
+        publish(ChangeNotificationDto.builder()
+                .type("PRODUCT")
+                .id(event.productId())
+                .action(action)
+                .stockQty(after == null ? null : after.getStockQty())
+                .build());
+    }
+
+    /** One notification per import chunk; clients re-sync products instead of taking thousands of events. */
+    @TransactionalEventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        publish(ChangeNotificationDto.builder()
+                .type("PRODUCT")
+                .action("IMPORTED")
+                .build());
+    }
+
+    @TransactionalEventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        CustomerDto after = event.after();
+        publish(ChangeNotificationDto.builder()
+                .type("CUSTOMER")
+                .id(event.customerId())
+                .action(after == null ? "DELETED" : event.before() == null ? "CREATED" : "UPDATED")
+                .build());
+    }
+
+    private void publish(ChangeNotificationDto notification) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame;
+        try {
+            frame = SseEmitter.event()
+                    .name(notification.getType().toLowerCase())
+                    .data(objectMapper.writeValueAsString(notification), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize change notification {}", notification, e);
+            return;
+        }
+        broadcast(frame);
+    }
+
+    private void sendHeartbeat() {
+        if (!subscribers.isEmpty()) {
+            broadcast(SseEmitter.event().comment("heartbeat").build());
+        }
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        subscribers.clear();
+        senders.shutdown();
+    }
+
+    /**
+     * One open stream and the frames not yet written to it. At most one drain runs at a time,
+     * so frames reach the client in the order they were queued.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                log.info("Closing change feed stream that fell {} events behind", queueSize);
+                lagging.increment();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        /** Stops the stream; the drain completes the emitter so a blocked write is never raced. */
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while (!closed && (frame = queue.poll()) != null) {
+                    emitter.send(frame);
+                }
+                if (closed) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                closed = true;
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            // A frame queued after the loop ended but before the flag cleared still needs sending
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.ChangesDto;
+import com.csis231.api.entity.ChangeLogEntry.EntityType;
+import com.csis231.api.event.CustomerChangedEvent;
+import com.csis231.api.event.OrderChangedEvent;
+import com.csis231.api.event.ProductChangedEvent;
+import com.csis231.api.event.ProductsImportedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Records which products, customers and orders each transaction touched, so clients can ask
+ * for "changes since token" instead of re-reading whole collections.
+ *
+ * Rows are stamped with the writing PostgreSQL transaction id. A sync token is the xmin of a
+ * snapshot taken before the data is read: every transaction below it has finished, and every
+ * transaction still running has an id at or above it. Asking for rows with tx_id >= token
+ * therefore never misses a late commit; at worst a row is sent twice, which is harmless for
+ * upserts. Requires PostgreSQL 13 or newer.
+ *
+ * Rows older than the retention period are purged on a schedule. The purge moves a horizon
+ * past every transaction it deletes, and a token below the horizon gets the whole collection
+ * again (or, for paged collections, a resync), because the rows it would need are gone.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeLogService {
+
+    private static final String INSERT_SQL =
+            "insert into change_log (entity_type, entity_id, deleted, tx_id, changed_at) "
+                    + "values (?, ?, ?, pg_current_xact_id()::text::bigint, now())";
+    // A rename shows up in every order of the customer
+    private static final String INSERT_CUSTOMER_ORDERS_SQL =
+            "insert into change_log (entity_type, entity_id, deleted, tx_id, changed_at) "
+                    + "select 'ORDER', o.order_id, false, pg_current_xact_id()::text::bigint, now() "
+                    + "from orders o where o.customer_id = ?";
+
+    private static final String CURRENT_TOKEN_SQL =
+            "select pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+    // After a restart the last purge is unknown, so anything older than the oldest kept row is suspect
+    private static final String INITIAL_HORIZON_SQL =
+            "select coalesce(min(tx_id), pg_snapshot_xmin(pg_current_snapshot())::text::bigint) from change_log";
+    private static final String PURGE_CUTOFF_SQL =
+            "select max(tx_id) + 1 from change_log where changed_at < now() - ? * interval '1 second'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${boutique.changes.retention:P7D}")
+    private Duration retention;
+
+    // Lowest token still answered with changes; -1 until read from the table
+    private final AtomicLong horizon = new AtomicLong(-1);
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        record(EntityType.PRODUCT, event.productId(), event.isDeleted());
+    }
+
+    @EventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        for (ProductChangedEvent change : event.changes()) {
+            onProductChanged(change);
+        }
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        record(EntityType.CUSTOMER, event.customerId(), event.isDeleted());
+        if (event.before() != null && event.after() != null) {
+            pending().customerUpdated(event.customerId());
+        }
+    }
+
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        record(EntityType.ORDER, event.orderId(), event.isDeleted());
+    }
+
+    /** Token for a read that starts now; take it before reading the data it covers. */
+    public String currentToken() {
+        Long xmin = jdbcTemplate.queryForObject(CURRENT_TOKEN_SQL, Long.class);
+        return String.valueOf(xmin);
+    }
+
+    /**
+     * Builds a changes response for one collection. Without a token, or with one older than the
+     * retained log, the whole collection is returned; otherwise only the rows changed since, with
+     * ids that no longer exist reported as deleted. Must run inside the caller's transaction.
+     */
+    public <T> ChangesDto<T> changesSince(EntityType type,
+                                          String since,
+                                          Supplier<List<T>> loadAll,
+                                          Function<List<Long>, List<T>> loadByIds,
+                                          Function<T, Long> idOf) {
+        return changes(type, since, loadAll, loadByIds, idOf);
+    }
+
+    /**
+     * Like {@link #changesSince} for a collection clients read page by page, which is too large
+     * to send whole: where that would return everything, this answers resync=true instead and
+     * the client reloads its first page.
+     */
+    public <T> ChangesDto<T> pagedChangesSince(EntityType type,
+                                               String since,
+                                               Function<List<Long>, List<T>> loadByIds,
+                                               Function<T, Long> idOf) {
+        return changes(type, since, null, loadByIds, idOf);
+    }
+
+    private <T> ChangesDto<T> changes(EntityType type,
+                                      String since,
+                                      Supplier<List<T>> loadAll,
+                                      Function<List<Long>, List<T>> loadByIds,
+                                      Function<T, Long> idOf) {
+        Long sinceToken = (since == null || since.isBlank()) ? null : parseToken(since);
+        String token = currentToken();
+        List<Long> ids = sinceToken == null ? null : changedIdsSince(type, sinceToken);
+
+        // Checked after the read: a purge raises the horizon before it deletes anything
+        if (ids == null || sinceToken < horizon()) {
+            return ChangesDto.<T>builder()
+                    .token(token)
+                    .full(loadAll != null)
+                    .resync(loadAll == null)
+                    .upserted(loadAll != null ? loadAll.get() : List.of())
+                    .deleted(List.of())
+                    .build();
+        }
+
+        List<T> upserted = ids.isEmpty() ? List.of() : loadByIds.apply(ids);
+        Set<Long> found = new HashSet<>();
+        for (T item : upserted) {
+            found.add(idOf.apply(item));
+        }
+        List<Long> deleted = ids.stream()
+                .filter(id -> !found.contains(id))
+                .toList();
+
+        return ChangesDto.<T>builder()
+                .token(token)
+                .full(false)
+                .upserted(upserted)
+                .deleted(deleted)
+                .build();
+    }
+
+    /**
+     * Deletes the rows written more than the retention period ago. Tokens older than the newest
+     * deleted transaction get a full snapshot from then on.
+     */
+    @Scheduled(cron = "${boutique.changes.purge-cron:0 15 4 * * *}")
+    public int purge() {
+        horizon();
+        Long cutoff = jdbcTemplate.queryForObject(PURGE_CUTOFF_SQL, Long.class, retention.toSeconds());
+        if (cutoff == null) {
+            return 0;
+        }
+        horizon.accumulateAndGet(cutoff, Math::max);
+        int deleted = jdbcTemplate.update("delete from change_log where tx_id < ?", cutoff);
+        log.info("Purged {} change log rows below transaction {}", deleted, cutoff);
+        return deleted;
+    }
+
+    private long horizon() {
+        long value = horizon.get();
+        if (value < 0) {
+            Long oldest = jdbcTemplate.queryForObject(INITIAL_HORIZON_SQL, Long.class);
+            value = horizon.accumulateAndGet(oldest, Math::max);
+        }
+        return value;
+    }
+
+    private long parseToken(String token) {
+        try {
+            long value = Long.parseLong(token.trim());
+            if (value < 0) {
+                throw new NumberFormatException();
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+    }
+
+    /** Ids of entities of the given type written by transactions at or after the token. */
+    private List<Long> changedIdsSince(EntityType type, long token) {
+        return jdbcTemplate.queryForList(
+                "select distinct entity_id from change_log where entity_type = ? and tx_id >= ?",
+                Long.class, type.name(), token);
+    }
+
+    private void record(EntityType type, Long id, boolean deleted) {
+        if (id == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.warn("Change to {} {} made outside a transaction was not logged", type, id);
+            return;
+        }
+        pending().add(type, id, deleted);
+    }
+
+    private PendingChanges pending() {
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    /** Changes collected during one transaction, written as a single batch just before commit. */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Map<String, Object[]> rows = new LinkedHashMap<>();
+        private final Set<Long> updatedCustomers = new HashSet<>();
+
+        void add(EntityType type, Long id, boolean deleted) {
+            // The last write in the transaction wins, so a create-then-delete is logged as a delete
+            rows.put(type + ":" + id, new Object[]{type.name(), id, deleted});
+        }
+
+        void customerUpdated(Long customerId) {
+            updatedCustomers.add(customerId);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, new ArrayList<>(rows.values()));
+            }
+            for (Long customerId : updatedCustomers) {
+                jdbcTemplate.update(INSERT_CUSTOMER_ORDERS_SQL, customerId);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeLogService.this);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.CheckoutRequestDto;
+import com.csis231.api.dto.OrderDto;
+import com.csis231.api.dto.OrderItemDto;
+import com.csis231.api.dto.ProductDto;
+import com.csis231.api.entity.Customer;
+import com.csis231.api.entity.Order;
+import com.csis231.api.entity.Product;
+import com.csis231.api.event.OrderChangedEvent;
+import com.csis231.api.event.ProductChangedEvent;
+import com.csis231.api.repository.CustomerRepository;
+import com.csis231.api.repository.OrderRepository;
+import com.csis231.api.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates a complete sale in one transaction: stock for every line is reserved with a
+ * single batched statement, the order row is inserted, and all items go in as one
+ * JDBC batch. This replaces the create order / add item / close order round trips.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class CheckoutService {
+
+    private static final String RESERVE_STOCK_SQL =
+            "update products set stock_qty = stock_qty - ? where product_id = ? and stock_qty >= ?";
+    private static final String INSERT_ITEM_SQL =
+            "insert into order_items (order_id, product_id, product_name, unit_price, quantity, subtotal) "
+                    + "values (?, ?, ?, ?, ?, ?)";
+
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusinessMetrics businessMetrics;
+
+    public OrderDto checkout(CheckoutRequestDto request) {
+        Customer customer = customerRepository.findById(request.getCustomerId())
+                .orElseThrow(() -> new RuntimeException("Customer not found with id: " + request.getCustomerId()));
+
+        // Product id order keeps row locks in a consistent order across concurrent checkouts
+        Map<Long, Integer> quantities = mergeLines(request.getLines());
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(quantities.entrySet());
+
+        int[] reserved = jdbcTemplate.batchUpdate(RESERVE_STOCK_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, Integer> line = lines.get(i);
+                ps.setInt(1, line.getValue());
+                ps.setLong(2, line.getKey());
+                ps.setInt(3, line.getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lines.size();
+            }
+        });
+
+        // Loaded after the reservation, so stock quantities already reflect it
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        for (int i = 0; i < lines.size(); i++) {
+            Long productId = lines.get(i).getKey();
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new RuntimeException("Product not found with id: " + productId);
+            }
+            if (reserved[i] == 0) {
+                businessMetrics.stockReservationFailed();
+                throw new RuntimeException("Insufficient stock for product: " + product.getName());
+            }
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        int unitCount = 0;
+        for (Map.Entry<Long, Integer> line : lines) {
+            total = total.add(products.get(line.getKey()).getPrice().multiply(BigDecimal.valueOf(line.getValue())));
+            unitCount += line.getValue();
+        }
+
+        Order order = orderRepository.save(Order.builder()
+                .customer(customer)
+                .description(request.getDescription())
+                .placedAt(LocalDateTime.now())
+                .status(request.isFulfill() ? Order.OrderStatus.FULFILLED : Order.OrderStatus.PENDING)
+                .total(total)
+                .unitCount(unitCount)
+                .build());
+
+        List<OrderItemDto> items = new ArrayList<>(lines.size());
+        for (Map.Entry<Long, Integer> line : lines) {
+            Product product = products.get(line.getKey());
+            items.add(OrderItemDto.builder()
+                    .orderId(order.getOrderId())
+                    .productId(product.getProductId())
+                    .productName(product.getName())
+                    .unitPrice(product.getPrice())
+                    .quantity(line.getValue())
+                    .subtotal(product.getPrice().multiply(BigDecimal.valueOf(line.getValue())))
+                    .build());
+        }
+        insertItems(items);
+        businessMetrics.itemsAdded(items.size());
+
+        eventPublisher.publishEvent(new OrderChangedEvent(order.getOrderId(), null, order.getStatus()));
+        for (Map.Entry<Long, Integer> line : lines) {
+            Product product = products.get(line.getKey());
+            eventPublisher.publishEvent(new ProductChangedEvent(product.getProductId(),
+                    snapshotOf(product, product.getStockQty() + line.getValue()),
+                    snapshotOf(product, product.getStockQty())));
+        }
+
+        return OrderDto.builder()
+                .orderId(order.getOrderId())
+                .customerId(customer.getCustomerId())
+                .customerName(customer.getName())
+                .description(order.getDescription())
+                .placedAt(order.getPlacedAt())
+                .status(order.getStatus())
+                .orderItems(items)
+                .total(total)
+                .unitCount(unitCount)
+                .build();
+    }
+
+    private Map<Long, Integer> mergeLines(List<CheckoutRequestDto.LineDto> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new RuntimeException("Checkout requires at least one line");
+        }
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (CheckoutRequestDto.LineDto line : lines) {
+            if (line.getProductId() == null || line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new RuntimeException("Each line needs a product and a quantity greater than 0");
+            }
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    /** Inserts all items as one JDBC batch and fills in their generated ids. */
+    private void insertItems(List<OrderItemDto> items) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_ITEM_SQL, new String[]{"id"})) {
+                for (OrderItemDto item : items) {
+                    ps.setLong(1, item.getOrderId());
+                    ps.setLong(2, item.getProductId());
+                    ps.setString(3, item.getProductName());
+                    ps.setBigDecimal(4, item.getUnitPrice());
+                    ps.setInt(5, item.getQuantity());
+                    ps.setBigDecimal(6, item.getSubtotal());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < items.size()) {
+                        items.get(i++).setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private ProductDto snapshotOf(Product product, int stockQty) {
+        return ProductDto.builder()
+                .productId(product.getProductId())
+                .name(product.getName())
+                .category(product.getCategory())
+                .price(product.getPrice())
+                .stockQty(stockQty)
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.csis231.api.service;
+
+import com.csis231.api.event.CustomerChangedEvent;
+import com.csis231.api.event.OrderChangedEvent;
+import com.csis231.api.event.ProductChangedEvent;
+import com.csis231.api.event.ProductsImportedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters for the list endpoints, used as ETags. A counter moves after every committed
+ * change to its collection, and the boot time is part of the tag so a restart invalidates
+ * everything clients hold. Controllers must take the tag before reading the data; the other
+ * order could pair new data with an old tag and leave a client holding stale rows. Tags are
+ * weak: Tomcat does not gzip a response carrying a strong ETag, and the tag tracks the rows, not
+ * the bytes on the wire.
+ *
+ * For the same reason the counters move last among the after-commit listeners: a cache that
+ * serves a collection (ProductCatalogCache) must hold the new rows before the tag changes.
+ */
+@Service
+public class CollectionVersionService {
+
+    public enum Collection {
+        PRODUCTS,
+        CUSTOMERS,
+        ORDERS
+    }
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Collection, AtomicLong> versions = new EnumMap<>(Collection.class);
+
+    public CollectionVersionService() {
+        for (Collection collection : Collection.values()) {
+            versions.put(collection, new AtomicLong());
+        }
+    }
+
+    public String etag(Collection collection) {
+        return "W/\"" + bootId + "-" + versions.get(collection).get() + "\"";
+    }
+
+    @TransactionalEventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        versions.get(Collection.PRODUCTS).incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onProductsImported(ProductsImportedEvent event) {
+        versions.get(Collection.PRODUCTS).incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        versions.get(Collection.CUSTOMERS).incrementAndGet();
+        // Orders embed the customer's name
+        versions.get(Collection.ORDERS).incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onOrderChanged(OrderChangedEvent event) {
+        versions.get(Collection.ORDERS).incrementAndGet();
+    }
+}
@@ -1,10 +1,14 @@
 package com.csis231.api.service;
 
+import com.csis231.api.dto.ChangesDto;
 import com.csis231.api.dto.CustomerDto;
+import com.csis231.api.entity.ChangeLogEntry;
 import com.csis231.api.entity.Customer;
+import com.csis231.api.event.CustomerChangedEvent;
 import com.csis231.api.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +22,8 @@ import java.util.stream.Collectors;
 public class CustomerService {
     
     private final CustomerRepository customerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeLogService changeLogService;
     
     public List<CustomerDto> getAllCustomers() {
         return customerRepository.findAll().stream()
@@ -25,6 +31,14 @@ public class CustomerService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    public ChangesDto<CustomerDto> getChanges(String since) {
+        return changeLogService.changesSince(ChangeLogEntry.EntityType.CUSTOMER, since,
+                this::getAllCustomers,
+                ids -> customerRepository.findAllById(ids).stream().map(this::convertToDto).collect(Collectors.toList()),
+                CustomerDto::getCustomerId);
+    }
+    
     public CustomerDto getCustomerById(Long id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
@@ -38,7 +52,9 @@ public class CustomerService {
         
         Customer customer = convertToEntity(customerDto);
         Customer savedCustomer = customerRepository.save(customer);
-        return convertToDto(savedCustomer);
+        CustomerDto created = convertToDto(savedCustomer);
+        eventPublisher.publishEvent(new CustomerChangedEvent(created.getCustomerId(), null, created));
+        return created;
     }
     
     public CustomerDto updateCustomer(Long id, CustomerDto customerDto) {
@@ -51,18 +67,21 @@ public class CustomerService {
             throw new RuntimeException("Customer with contact " + customerDto.getContact() + " already exists");
         }
         
+        CustomerDto before = convertToDto(customer);
         customer.setName(customerDto.getName());
         customer.setContact(customerDto.getContact());
         
         Customer savedCustomer = customerRepository.save(customer);
-        return convertToDto(savedCustomer);
+        CustomerDto updated = convertToDto(savedCustomer);
+        eventPublisher.publishEvent(new CustomerChangedEvent(id, before, updated));
+        return updated;
     }
     
     public void deleteCustomer(Long id) {
-        if (!customerRepository.existsById(id)) {
-            throw new RuntimeException("Customer not found with id: " + id);
-        }
-        customerRepository.deleteById(id);
+        Customer customer = customerRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
+        customerRepository.delete(customer);
+        eventPublisher.publishEvent(new CustomerChangedEvent(id, convertToDto(customer), null));
     }
     
     private CustomerDto convertToDto(Customer customer) {
@@ -0,0 +1,98 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.SalesReportDto;
+import com.csis231.api.dto.SalesReportRowDto;
+import com.csis231.api.entity.Order;
+import com.csis231.api.event.OrderChangedEvent;
+import com.csis231.api.repository.DailySalesRepository;
+import com.csis231.api.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the daily_sales rollup in step with fulfilled orders and answers sales reports from it.
+ * An order's lines are added in the transaction that fulfils it, so the rollup commits or
+ * rolls back together with the status change. Fulfilled orders can no longer change, so
+ * nothing ever has to be subtracted again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class DailySalesService {
+
+    private final DailySalesRepository dailySalesRepository;
+    private final OrderRepository orderRepository;
+
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.status() == Order.OrderStatus.FULFILLED && event.previousStatus() != Order.OrderStatus.FULFILLED) {
+            dailySalesRepository.addOrder(event.orderId());
+        }
+    }
+
+    /**
+     * Recomputes the whole rollup from fulfilled orders, returning the number of rows written.
+     * Fulfilments wait on the table lock until the rebuild commits and are then added on top.
+     */
+    public int rebuild() {
+        long started = System.nanoTime();
+        dailySalesRepository.lockTable();
+        dailySalesRepository.deleteAllRows();
+        int rows = dailySalesRepository.insertFromFulfilledOrders();
+        log.info("Rebuilt daily sales rollup with {} rows in {} ms", rows, (System.nanoTime() - started) / 1_000_000);
+        return rows;
+    }
+
+    /** Backfills the rollup the first time the application starts against existing orders. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (dailySalesRepository.count() == 0 && orderRepository.countByStatus(Order.OrderStatus.FULFILLED) > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Sales of fulfilled orders placed between the two dates, inclusive. Rows come from the
+     * rollup alone; the order count uses the orders status and placed_at index.
+     */
+    @Transactional(readOnly = true)
+    public SalesReportDto getReport(LocalDate from, LocalDate to, SalesReportDto.GroupBy groupBy) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must be before or equal to to");
+        }
+
+        List<SalesReportRowDto> rows = switch (groupBy) {
+            case PRODUCT -> dailySalesRepository.sumByProduct(from, to);
+            case CATEGORY -> dailySalesRepository.sumByCategory(from, to);
+            case DAY -> dailySalesRepository.sumByDay(from, to);
+        };
+
+        long totalItemsSold = rows.stream().mapToLong(SalesReportRowDto::getQuantitySold).sum();
+        BigDecimal totalRevenue = rows.stream()
+                .map(SalesReportRowDto::getRevenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        return SalesReportDto.builder()
+                .from(start)
+                .to(end)
+                .groupBy(groupBy)
+                .rows(rows)
+                .totalOrders(orderRepository.countByStatusAndPlacedAtGreaterThanEqualAndPlacedAtLessThan(
+                        Order.OrderStatus.FULFILLED, start, end))
+                .totalItemsSold(totalItemsSold)
+                .totalRevenue(totalRevenue)
+                .build();
+    }
+}
@@ -0,0 +1,242 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.DashboardSummaryDto;
+import com.csis231.api.dto.ProductDto;
+import com.csis231.api.entity.Order;
+import com.csis231.api.event.CustomerChangedEvent;
+import com.csis231.api.event.OrderChangedEvent;
+import com.csis231.api.event.ProductChangedEvent;
+import com.csis231.api.event.ProductsImportedEvent;
+import com.csis231.api.repository.CustomerRepository;
+import com.csis231.api.repository.OrderRepository;
+import com.csis231.api.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the dashboard numbers in memory. They are loaded once from the database and then moved
+ * by the change events the services publish, applied only after the writing transaction commits,
+ * so a summary read never touches the database.
+ *
+ * A writing transaction holds the read side of {@code commitLock} from just before its commit
+ * until its changes are applied, and a reload holds the write side while it counts. Every change
+ * is therefore either already in the database the reload reads or applied after the reload's
+ * baseline, never both and never neither. A scheduled reconcile corrects anything else that drifts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardService {
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final CustomerRepository customerRepository;
+
+    @Value("${boutique.dashboard.low-stock-threshold:3}")
+    private int lowStockThreshold;
+
+    private final Map<Order.OrderStatus, AtomicLong> ordersByStatus = newStatusCounters();
+    private final AtomicReference<BigDecimal> inventoryValue = new AtomicReference<>(BigDecimal.ZERO);
+    private final AtomicLong lowStockCount = new AtomicLong();
+    private final AtomicLong customerCount = new AtomicLong();
+    private volatile boolean loaded;
+    private final ReentrantReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /** Recomputes every counter from the database; safe to call at any time to correct drift. */
+    @Transactional(readOnly = true)
+    public void reload() {
+        commitLock.writeLock().lock();
+        try {
+            DashboardSummaryDto before = loaded ? summary() : null;
+            for (Order.OrderStatus status : Order.OrderStatus.values()) {
+                ordersByStatus.get(status).set(orderRepository.countByStatus(status));
+            }
+            inventoryValue.set(productRepository.sumInventoryValue());
+            lowStockCount.set(productRepository.countByStockQtyLessThanEqual(lowStockThreshold));
+            customerCount.set(customerRepository.count());
+            loaded = true;
+
+            DashboardSummaryDto after = summary();
+            if (before == null) {
+                log.info("Dashboard counters loaded");
+            } else if (drifted(before, after)) {
+                log.warn("Dashboard counters had drifted: {} corrected to {}", before, after);
+            }
+        } finally {
+            commitLock.writeLock().unlock();
+        }
+    }
+
+    /** Reloads the counters on a schedule, which also catches drift nothing else would notice. */
+    @Scheduled(cron = "${boutique.dashboard.reconcile-cron:0 */15 * * * *}")
+    public void reconcile() {
+        if (loaded) {
+            reload();
+        }
+    }
+
+    public DashboardSummaryDto getSummary() {
+        if (!loaded) {
+            reload();
+        }
+        return summary();
+    }
+
+    private DashboardSummaryDto summary() {
+        Map<Order.OrderStatus, Long> byStatus = new EnumMap<>(Order.OrderStatus.class);
+        long total = 0;
+        for (Map.Entry<Order.OrderStatus, AtomicLong> entry : ordersByStatus.entrySet()) {
+            long count = entry.getValue().get();
+            byStatus.put(entry.getKey(), count);
+            total += count;
+        }
+
+        return DashboardSummaryDto.builder()
+                .totalOrders(total)
+                .pendingOrders(byStatus.get(Order.OrderStatus.PENDING))
+                .fulfilledOrders(byStatus.get(Order.OrderStatus.FULFILLED))
+                .ordersByStatus(byStatus)
+                .inventoryValue(inventoryValue.get())
+                .lowStockCount(lowStockCount.get())
+                .lowStockThreshold(lowStockThreshold)
+                .totalCustomers(customerCount.get())
+                .build();
+    }
+
+    private static boolean drifted(DashboardSummaryDto before, DashboardSummaryDto after) {
+        return !before.getOrdersByStatus().equals(after.getOrdersByStatus())
+                || before.getInventoryValue().compareTo(after.getInventoryValue()) != 0
+                || before.getLowStockCount() != after.getLowStockCount()
+                || before.getTotalCustomers() != after.getTotalCustomers();
+    }
+
+    public int getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.previousStatus() != event.status()) {
+            afterCommit(() -> applyOrderChange(event));
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        afterCommit(() -> applyProductChange(event));
+    }
+
+    @EventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        afterCommit(() -> event.changes().forEach(this::applyProductChange));
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        afterCommit(() -> applyCustomerChange(event));
+    }
+
+    /** Runs {@code update} once the surrounding transaction commits, holding off reloads meanwhile. */
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            commitLock.readLock().lock();
+            try {
+                update.run();
+            } finally {
+                commitLock.readLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitLock.readLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        update.run();
+                    }
+                } finally {
+                    if (locked) {
+                        commitLock.readLock().unlock();
+                    }
+                }
+            }
+        });
+    }
+
+    private void applyOrderChange(OrderChangedEvent event) {
+        if (event.previousStatus() != null) {
+            ordersByStatus.get(event.previousStatus()).decrementAndGet();
+        }
+        if (event.status() != null) {
+            ordersByStatus.get(event.status()).incrementAndGet();
+        }
+    }
+
+    private void applyProductChange(ProductChangedEvent event) {
+        BigDecimal delta = stockValue(event.after()).subtract(stockValue(event.before()));
+        if (delta.signum() != 0) {
+            inventoryValue.accumulateAndGet(delta, BigDecimal::add);
+        }
+
+        boolean wasLow = isLowStock(event.before());
+        boolean isLow = isLowStock(event.after());
+        if (wasLow != isLow) {
+            lowStockCount.addAndGet(isLow ? 1 : -1);
+        }
+    }
+
+    private void applyCustomerChange(CustomerChangedEvent event) {
+        if (event.before() == null && event.after() != null) {
+            customerCount.incrementAndGet();
+        } else if (event.before() != null && event.after() == null) {
+            customerCount.decrementAndGet();
+        }
+    }
+
+    private static Map<Order.OrderStatus, AtomicLong> newStatusCounters() {
+        Map<Order.OrderStatus, AtomicLong> counters = new EnumMap<>(Order.OrderStatus.class);
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            counters.put(status, new AtomicLong());
+        }
+        return counters;
+    }
+
+    private BigDecimal stockValue(ProductDto product) {
+        if (product == null || product.getPrice() == null || product.getStockQty() == null) {
+            return BigDecimal.ZERO;
+        }
+        return product.getPrice().multiply(BigDecimal.valueOf(product.getStockQty()));
+    }
+
+    private boolean isLowStock(ProductDto product) {
+        return product != null && product.getStockQty() != null && product.getStockQty() <= lowStockThreshold;
+    }
+}
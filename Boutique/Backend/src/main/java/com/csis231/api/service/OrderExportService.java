@@ -0,0 +1,129 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.OrderDto;
+import com.csis231.api.dto.OrderItemDto;
+import com.csis231.api.entity.Order;
+import com.csis231.api.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes the orders of a date range straight from a database cursor to the response. Each
+ * order is written and detached before the next is read, so memory stays flat however large
+ * the range; clients see the first rows as soon as the first buffer fills.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER = "orderId,placedAt,status,customerId,customerName,description,"
+            + "total,unitCount,productId,productName,unitPrice,quantity,subtotal";
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * NDJSON gets one order per line with its items nested, shaped like the /api/orders
+     * responses. CSV gets one line per item, with the order's columns repeated; an order
+     * without items gets a single line with the item columns empty.
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(LocalDateTime from, LocalDateTime to, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // The generator must not close the response stream after each order
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                .setRootValueSeparator(null);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        try (Stream<Order> orders = orderRepository.streamForExport(from, to)) {
+            Iterator<Order> it = orders.iterator();
+            while (it.hasNext()) {
+                Order order = it.next();
+                OrderDto dto = orderService.convertToDto(order);
+                entityManager.detach(order);
+
+                if (format == Format.CSV) {
+                    writeCsv(writer, dto);
+                } else {
+                    objectMapper.writeValue(json, dto);
+                    json.flush();
+                    writer.write('\n');
+                }
+                count++;
+            }
+        }
+        writer.flush();
+        log.debug("Exported {} orders placed between {} and {}", count, from, to);
+    }
+
+    private void writeCsv(Writer writer, OrderDto order) throws IOException {
+        String orderColumns = String.join(",",
+                String.valueOf(order.getOrderId()),
+                String.valueOf(order.getPlacedAt()),
+                order.getStatus().name(),
+                String.valueOf(order.getCustomerId()),
+                csv(order.getCustomerName()),
+                csv(order.getDescription()),
+                order.getTotal().toPlainString(),
+                String.valueOf(order.getUnitCount()));
+
+        List<OrderItemDto> items = order.getOrderItems();
+        if (items.isEmpty()) {
+            writer.write(orderColumns);
+            writer.write(",,,,,\n");
+            return;
+        }
+        for (OrderItemDto item : items) {
+            writer.write(orderColumns);
+            writer.write(',');
+            writer.write(String.join(",",
+                    String.valueOf(item.getProductId()),
+                    csv(item.getProductName()),
+                    item.getUnitPrice().toPlainString(),
+                    String.valueOf(item.getQuantity()),
+                    item.getSubtotal().toPlainString()));
+            writer.write('\n');
+        }
+    }
+
+    /** Quotes a value when it contains a separator, quote or line break. */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
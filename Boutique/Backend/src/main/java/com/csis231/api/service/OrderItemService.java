@@ -1,10 +1,14 @@
 package com.csis231.api.service;
 
 import com.csis231.api.dto.OrderItemDto;
+import com.csis231.api.dto.ProductDto;
 import com.csis231.api.entity.*;
+import com.csis231.api.event.OrderChangedEvent;
+import com.csis231.api.event.ProductChangedEvent;
 import com.csis231.api.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +25,8 @@ public class OrderItemService {
     private final OrderItemRepository orderItemRepository;
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusinessMetrics businessMetrics;
     
     public List<OrderItemDto> getOrderItems(Long orderId) {
         Order order = orderRepository.findById(orderId)
@@ -32,7 +38,7 @@ public class OrderItemService {
     }
     
     public OrderItemDto addOrderItem(Long orderId, OrderItemDto orderItemDto) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         
         // Check if order is pending
@@ -40,11 +46,13 @@ public class OrderItemService {
             throw new RuntimeException("Items can only be added to pending orders");
         }
         
+        // Reserve stock first; the product is loaded afterwards so it reflects the new quantity
+        int quantity = orderItemDto.getQuantity();
+        boolean reserved = productRepository.reserveStock(orderItemDto.getProductId(), quantity) == 1;
         Product product = productRepository.findById(orderItemDto.getProductId())
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + orderItemDto.getProductId()));
-        
-        // Check stock availability
-        if (product.getStockQty() < orderItemDto.getQuantity()) {
+        if (!reserved) {
+            businessMetrics.stockReservationFailed();
             throw new RuntimeException("Insufficient stock for product: " + product.getName());
         }
         
@@ -63,16 +71,18 @@ public class OrderItemService {
                 .build();
         
         OrderItem savedItem = orderItemRepository.save(orderItem);
+        orderRepository.adjustTotals(orderId, subtotal, quantity);
         
-        // Update stock
-        product.setStockQty(product.getStockQty() - orderItemDto.getQuantity());
-        productRepository.save(product);
+        int stockQty = product.getStockQty();
+        publishStockChange(product, stockQty + quantity, stockQty);
+        publishItemsChanged(order);
+        businessMetrics.itemsAdded(1);
         
         return convertToDto(savedItem);
     }
     
     public OrderItemDto updateOrderItem(Long orderId, Long itemId, OrderItemDto orderItemDto) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         
         // Check if order is pending
@@ -92,30 +102,35 @@ public class OrderItemService {
         int oldQuantity = orderItem.getQuantity();
         int newQuantity = orderItemDto.getQuantity();
         
-        // Check stock availability for quantity change
-        if (newQuantity > oldQuantity) {
-            int additionalQuantity = newQuantity - oldQuantity;
-            if (product.getStockQty() < additionalQuantity) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
-            }
+        // Reserve or release only the difference, atomically in the database
+        int stockChange = newQuantity - oldQuantity;
+        if (stockChange > 0 && productRepository.reserveStock(product.getProductId(), stockChange) == 0) {
+            businessMetrics.stockReservationFailed();
+            throw new RuntimeException("Insufficient stock for product: " + product.getName());
+        }
+        if (stockChange < 0) {
+            productRepository.releaseStock(product.getProductId(), -stockChange);
         }
         
         // Update order item
+        BigDecimal oldSubtotal = orderItem.getSubtotal();
         orderItem.setQuantity(newQuantity);
         orderItem.setSubtotal(orderItem.getUnitPrice().multiply(BigDecimal.valueOf(newQuantity)));
         
         OrderItem savedItem = orderItemRepository.save(orderItem);
+        orderRepository.adjustTotals(orderId, orderItem.getSubtotal().subtract(oldSubtotal), stockChange);
         
-        // Update stock
-        int stockChange = newQuantity - oldQuantity;
-        product.setStockQty(product.getStockQty() - stockChange);
-        productRepository.save(product);
+        if (stockChange != 0) {
+            int stockQty = productRepository.findStockQtyById(product.getProductId());
+            publishStockChange(product, stockQty + stockChange, stockQty);
+        }
+        publishItemsChanged(order);
         
         return convertToDto(savedItem);
     }
     
     public void removeOrderItem(Long orderId, Long itemId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         
         // Check if order is pending
@@ -133,11 +148,38 @@ public class OrderItemService {
         
         // Restore stock
         Product product = orderItem.getProduct();
-        product.setStockQty(product.getStockQty() + orderItem.getQuantity());
-        productRepository.save(product);
+        productRepository.releaseStock(product.getProductId(), orderItem.getQuantity());
+        int stockQty = productRepository.findStockQtyById(product.getProductId());
+        publishStockChange(product, stockQty - orderItem.getQuantity(), stockQty);
         
         // Remove order item
         orderItemRepository.delete(orderItem);
+        orderRepository.adjustTotals(orderId, orderItem.getSubtotal().negate(), -orderItem.getQuantity());
+        publishItemsChanged(order);
+    }
+    
+    /**
+     * Stock is changed with bulk UPDATEs that bypass the persistence context, so the
+     * quantities are passed in explicitly. The row stays locked by our UPDATE until
+     * commit, which makes the re-read value exact.
+     */
+    private void publishStockChange(Product product, int stockBefore, int stockAfter) {
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getProductId(),
+                snapshotOf(product, stockBefore), snapshotOf(product, stockAfter)));
+    }
+    
+    private void publishItemsChanged(Order order) {
+        eventPublisher.publishEvent(new OrderChangedEvent(order.getOrderId(), order.getStatus(), order.getStatus()));
+    }
+    
+    private ProductDto snapshotOf(Product product, int stockQty) {
+        return ProductDto.builder()
+                .productId(product.getProductId())
+                .name(product.getName())
+                .category(product.getCategory())
+                .price(product.getPrice())
+                .stockQty(stockQty)
+                .build();
     }
     
     private OrderItemDto convertToDto(OrderItem orderItem) {
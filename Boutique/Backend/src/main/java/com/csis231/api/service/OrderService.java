@@ -1,18 +1,26 @@
 package com.csis231.api.service;
 
+import com.csis231.api.dto.ChangesDto;
 import com.csis231.api.dto.OrderDto;
 import com.csis231.api.dto.OrderItemDto;
+import com.csis231.api.dto.OrderPageDto;
+import com.csis231.api.entity.ChangeLogEntry;
 import com.csis231.api.entity.Customer;
 import com.csis231.api.entity.Order;
 import com.csis231.api.entity.OrderItem;
+import com.csis231.api.event.OrderChangedEvent;
 import com.csis231.api.repository.CustomerRepository;
-import com.csis231.api.repository.OrderItemRepository;
 import com.csis231.api.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -24,18 +32,30 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int REPAIR_CHUNK_SIZE = 500;
+
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
     private final CustomerRepository customerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeLogService changeLogService;
 
     public List<OrderDto> getAllOrders() {
-        return orderRepository.findAll().stream()
+        return orderRepository.findAllWithCustomerAndItems().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public ChangesDto<OrderDto> getChanges(String since) {
+        return changeLogService.pagedChangesSince(ChangeLogEntry.EntityType.ORDER, since,
+                ids -> orderRepository.findByOrderIdIn(ids).stream().map(this::convertToDto).collect(Collectors.toList()),
+                OrderDto::getOrderId);
+    }
+
     public OrderDto getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithCustomerAndItemsByOrderId(id)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
         return convertToDto(order);
     }
@@ -52,27 +72,30 @@ public class OrderService {
                 .build();
 
         Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderChangedEvent(savedOrder.getOrderId(), null, savedOrder.getStatus()));
         return convertToDto(savedOrder);
     }
 
     public OrderDto updateOrder(Long id, OrderDto orderDto) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
 
         if (isFinalized(order)) {
             throw new RuntimeException("Cannot update fulfilled or cancelled orders");
         }
 
+        Order.OrderStatus previousStatus = order.getStatus();
         if (orderDto.getStatus() != null) {
             order.setStatus(orderDto.getStatus());
         }
 
         Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderChangedEvent(id, previousStatus, savedOrder.getStatus()));
         return convertToDto(savedOrder);
     }
 
     public void deleteOrder(Long id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
 
         if (order.getStatus() != Order.OrderStatus.PENDING) {
@@ -80,10 +103,11 @@ public class OrderService {
         }
 
         orderRepository.delete(order);
+        eventPublisher.publishEvent(new OrderChangedEvent(id, order.getStatus(), null));
     }
 
     public OrderDto closeOrder(Long id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
 
         if (order.getStatus() == Order.OrderStatus.CANCELLED) {
@@ -94,13 +118,14 @@ public class OrderService {
             throw new RuntimeException("Order already fulfilled");
         }
 
-        List<OrderItem> items = orderItemRepository.findByOrder(order);
-        if (items.isEmpty()) {
+        if (order.getUnitCount() == 0) {
             throw new RuntimeException("Cannot fulfill order without items");
         }
 
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.FULFILLED);
         Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderChangedEvent(id, previousStatus, Order.OrderStatus.FULFILLED));
 
         return convertToDto(savedOrder);
     }
@@ -117,11 +142,93 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
-    private OrderDto convertToDto(Order order) {
-        List<OrderItemDto> orderItems = orderItemRepository.findByOrder(order).stream()
-                .map(this::convertItemToDto)
+    public OrderPageDto getOrdersPage(String after,
+                                      Integer limit,
+                                      Order.OrderStatus status,
+                                      Long customerId,
+                                      LocalDateTime from,
+                                      LocalDateTime to,
+                                      BigDecimal minTotal,
+                                      BigDecimal maxTotal) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        LocalDateTime afterPlacedAt = null;
+        Long afterId = null;
+        if (after != null && !after.isBlank()) {
+            String[] parts = after.split(",");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+            try {
+                afterPlacedAt = LocalDateTime.parse(parts[0].trim());
+                afterId = Long.parseLong(parts[1].trim());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+        }
+
+        // Taken before the page is read so the client can continue with getChanges(syncToken)
+        String syncToken = changeLogService.currentToken();
+
+        // One extra row tells us whether another page exists without a count query
+        List<Order> page = orderRepository.findPageAfter(status, customerId, from, to, minTotal, maxTotal, afterPlacedAt, afterId, pageSize + 1);
+        boolean hasMore = page.size() > pageSize;
+        if (hasMore) {
+            page = page.subList(0, pageSize);
+        }
+
+        List<OrderDto> orders = page.stream()
+                .map(this::convertToSummaryDto)
                 .collect(Collectors.toList());
 
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = page.get(page.size() - 1);
+            nextCursor = last.getPlacedAt() + "," + last.getOrderId();
+        }
+
+        return OrderPageDto.builder()
+                .orders(orders)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .syncToken(syncToken)
+                .build();
+    }
+
+    /**
+     * Recomputes the stored total and unit count of every order whose items disagree with them,
+     * returning how many were corrected. Runs at startup, which also fills in orders created
+     * before the columns existed, and then on the configured schedule.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${boutique.orders.totals-repair-cron:0 30 3 * * *}")
+    public int repairTotals() {
+        List<Long> staleIds = orderRepository.findIdsWithStaleTotals();
+        if (staleIds.isEmpty()) {
+            return 0;
+        }
+
+        int repaired = 0;
+        for (int start = 0; start < staleIds.size(); start += REPAIR_CHUNK_SIZE) {
+            List<Long> chunk = staleIds.subList(start, Math.min(start + REPAIR_CHUNK_SIZE, staleIds.size()));
+            orderRepository.lockByOrderIdIn(chunk);
+            repaired += orderRepository.recomputeTotals(chunk);
+        }
+        log.warn("Repaired stored totals on {} orders", repaired);
+        return repaired;
+    }
+
+    OrderDto convertToDto(Order order) {
+        // Items come from the order's own collection so fetch-planned reads stay at one query
+        OrderDto dto = convertToSummaryDto(order);
+        dto.setOrderItems(order.getOrderItems() == null ? List.of() : order.getOrderItems().stream()
+                .map(this::convertItemToDto)
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    /** Order header only; the stored total and unit count stand in for the items. */
+    private OrderDto convertToSummaryDto(Order order) {
         return OrderDto.builder()
                 .orderId(order.getOrderId())
                 .customerId(order.getCustomer().getCustomerId())
@@ -129,8 +236,8 @@ public class OrderService {
                 .description(order.getDescription())
                 .placedAt(order.getPlacedAt())
                 .status(order.getStatus())
-                .orderItems(orderItems)
                 .total(order.getTotal())
+                .unitCount(order.getUnitCount())
                 .build();
     }
 
@@ -0,0 +1,225 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.ProductDto;
+import com.csis231.api.entity.ProductCategory;
+import com.csis231.api.event.ProductChangedEvent;
+import com.csis231.api.event.ProductsImportedEvent;
+import com.csis231.api.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Whole-catalog, copy-on-write cache of product snapshots. Readers get an immutable
+ * {@link Catalog} through a single volatile read; it holds {@link CachedProduct} records and
+ * hands out fresh DTOs, so no caller can change what other readers see. After a product write commits, the
+ * changed row is re-read and a new catalog is swapped in; re-reading rather than trusting
+ * the event payload keeps the cache right even when commits on the same product publish
+ * their events out of order. Catalogs larger than the configured bound are not cached and
+ * callers fall back to the database.
+ */
+@Service
+@Slf4j
+public class ProductCatalogCache {
+
+    private final ProductRepository productRepository;
+    private final int maxProducts;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    private volatile Catalog catalog;
+
+    public ProductCatalogCache(ProductRepository productRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${boutique.catalog.max-products:10000}") int maxProducts) {
+        this.productRepository = productRepository;
+        this.maxProducts = maxProducts;
+        this.hits = Counter.builder("boutique.catalog.cache.requests").tag("result", "hit")
+                .description("Catalog cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("boutique.catalog.cache.requests").tag("result", "miss")
+                .description("Catalog cache lookups").register(meterRegistry);
+        this.evictions = Counter.builder("boutique.catalog.cache.evictions")
+                .description("Times the cached catalog was dropped").register(meterRegistry);
+        Gauge.builder("boutique.catalog.cache.size", this, cache -> {
+            Catalog current = cache.catalog;
+            return current == null ? 0 : current.size();
+        }).description("Products held in the catalog cache").register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached catalog, loading it on a miss, or null when the catalog is
+     * larger than the configured bound.
+     */
+    public Catalog get() {
+        Catalog current = catalog;
+        if (current != null) {
+            hits.increment();
+            return current;
+        }
+        misses.increment();
+        return load();
+    }
+
+    public synchronized void invalidate() {
+        evict();
+    }
+
+    // Runs before CollectionVersionService moves the products ETag, so a client never gets the new
+    // tag with the old rows
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        Catalog current = catalog;
+        if (current == null) {
+            return;
+        }
+
+        Map<Long, CachedProduct> byId = new TreeMap<>(current.byId);
+        productRepository.findSnapshotById(event.productId()).ifPresentOrElse(
+                product -> byId.put(product.getProductId(), CachedProduct.of(product)),
+                () -> byId.remove(event.productId()));
+        if (byId.size() > maxProducts) {
+            log.info("Product catalog grew past {} entries, no longer caching it", maxProducts);
+            evict();
+            return;
+        }
+        catalog = new Catalog(byId);
+    }
+
+    /** Imports touch too many rows to patch in one by one; the next read reloads the catalog. */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onProductsImported(ProductsImportedEvent event) {
+        evict();
+    }
+
+    private synchronized Catalog load() {
+        // Another thread may have loaded it while we waited for the lock
+        if (catalog != null) {
+            return catalog;
+        }
+        if (productRepository.count() > maxProducts) {
+            return null;
+        }
+
+        Map<Long, ProductDto> byId = new TreeMap<>();
+        for (ProductDto product : productRepository.findAllSnapshots()) {
+            byId.put(product.getProductId(), product);
+        }
+        catalog = Catalog.of(byId);
+        log.debug("Product catalog loaded with {} products", byId.size());
+        return catalog;
+    }
+
+    private void evict() {
+        if (catalog != null) {
+            catalog = null;
+            evictions.increment();
+        }
+    }
+
+    /** One product as cached; immutable, so it is shared between readers as is. */
+    public record CachedProduct(Long productId, String name, ProductCategory category, BigDecimal price,
+                                Integer stockQty) {
+
+        static CachedProduct of(ProductDto product) {
+            return new CachedProduct(product.getProductId(), product.getName(), product.getCategory(),
+                    product.getPrice(), product.getStockQty());
+        }
+
+        public ProductDto toDto() {
+            return new ProductDto(productId, name, category, price, stockQty);
+        }
+
+        boolean inStock() {
+            return stockQty != null && stockQty > 0;
+        }
+    }
+
+    /**
+     * Immutable view of the catalog ordered by product id. The list and lookup methods return
+     * new DTOs on every call, which callers may change freely.
+     */
+    public static final class Catalog {
+
+        private final Map<Long, CachedProduct> byId;
+        private final List<CachedProduct> all;
+        private final Map<ProductCategory, List<CachedProduct>> byCategory;
+        private final List<CachedProduct> inStock;
+
+        static Catalog of(Map<Long, ProductDto> products) {
+            Map<Long, CachedProduct> byId = new TreeMap<>();
+            products.forEach((id, product) -> byId.put(id, CachedProduct.of(product)));
+            return new Catalog(byId);
+        }
+
+        private Catalog(Map<Long, CachedProduct> byId) {
+            List<CachedProduct> all = new ArrayList<>(byId.values());
+            Map<ProductCategory, List<CachedProduct>> byCategory = new EnumMap<>(ProductCategory.class);
+            List<CachedProduct> inStock = new ArrayList<>();
+            for (CachedProduct product : all) {
+                if (product.category() != null) {
+                    byCategory.computeIfAbsent(product.category(), c -> new ArrayList<>()).add(product);
+                }
+                if (product.inStock()) {
+                    inStock.add(product);
+                }
+            }
+            byCategory.replaceAll((category, cached) -> Collections.unmodifiableList(cached));
+
+            this.byId = Collections.unmodifiableMap(byId);
+            this.all = Collections.unmodifiableList(all);
+            this.byCategory = Collections.unmodifiableMap(byCategory);
+            this.inStock = Collections.unmodifiableList(inStock);
+        }
+
+        /** The cached record itself, for lookups that only read it. */
+        public CachedProduct product(Long productId) {
+            return byId.get(productId);
+        }
+
+        public ProductDto get(Long productId) {
+            CachedProduct product = byId.get(productId);
+            return product == null ? null : product.toDto();
+        }
+
+        public List<ProductDto> all() {
+            return toDtos(all);
+        }
+
+        public List<ProductDto> category(ProductCategory category) {
+            return toDtos(byCategory.getOrDefault(category, List.of()));
+        }
+
+        public List<ProductDto> inStock() {
+            return toDtos(inStock);
+        }
+
+        public int size() {
+            return all.size();
+        }
+
+        private static List<ProductDto> toDtos(List<CachedProduct> products) {
+            List<ProductDto> dtos = new ArrayList<>(products.size());
+            for (CachedProduct product : products) {
+                dtos.add(product.toDto());
+            }
+            return dtos;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.ProductDto;
+import com.csis231.api.dto.ProductImportResultDto;
+import com.csis231.api.entity.ProductCategory;
+import com.csis231.api.event.ProductChangedEvent;
+import com.csis231.api.event.ProductsImportedEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams a CSV or NDJSON product feed into the catalog. The body is read line by line and
+ * written in chunks, each chunk in its own transaction: one locking lookup of the existing
+ * names, one batched UPDATE and one batched INSERT. Memory use depends on the chunk size, not
+ * the file.
+ *
+ * Products are matched by exact name (the catalog has no SKU column); a matching product gets
+ * the row's category, price and stock, anything else is inserted. Ids for the new rows are
+ * drawn from the product id sequence in one round trip and sent with the rows, which keeps
+ * the INSERT batch free of RETURNING so the driver can rewrite it into multi-row statements.
+ * Rejected rows are reported
+ * by line number and do not stop the import. Chunks that already committed stay committed if
+ * a later one fails.
+ *
+ * Imports run concurrently; only the chunk transactions are serialised, by a transaction-scoped
+ * advisory lock, so two feeds naming the same new product cannot both insert it. Reading and
+ * parsing the body happen outside the lock, and a slow upload holds nothing while it waits.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_PRICE_DIGITS = 10;
+    private static final int PRICE_SCALE = 2;
+
+    private static final String UPDATE_SQL =
+            "update products set category = ?, price = ?, stock_qty = ? where product_id = ?";
+    private static final String INSERT_SQL =
+            "insert into products (product_id, name, category, price, stock_qty) values (?, ?, ?, ?, ?)";
+    // Draws from the sequence behind the identity column, so single-row creates never collide
+    private static final String NEXT_IDS_SQL =
+            "select nextval(pg_get_serial_sequence('products', 'product_id')) from generate_series(1, ?)";
+    // Released when the chunk commits or rolls back
+    private static final String CHUNK_LOCK_SQL = "select pg_advisory_xact_lock(hashtext('products.import'))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                ObjectMapper objectMapper,
+                                @Value("${boutique.import.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports the body in the given format ({@link #CSV} with a header row naming name,
+     * category, price and stockQty, or {@link #NDJSON} with one object per line).
+     */
+    public ProductImportResultDto importProducts(InputStream body, String format) throws IOException {
+        boolean csv = CSV.equals(format);
+        if (!csv && !NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unsupported import format: " + format);
+        }
+
+        Progress progress = new Progress();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = null;
+        Map<String, Row> chunk = new LinkedHashMap<>();
+        long lineNumber = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            if (csv && columns == null) {
+                columns = readHeader(line);
+                continue;
+            }
+
+            progress.processed++;
+            try {
+                Row row = csv ? parseCsvRow(line, lineNumber, columns) : parseJsonRow(line, lineNumber);
+                // A name repeated within a chunk is applied as an update of the earlier row
+                if (chunk.put(row.name(), row) != null) {
+                    progress.updated++;
+                }
+            } catch (IllegalArgumentException e) {
+                progress.reject(lineNumber, e.getMessage());
+            }
+
+            if (chunk.size() >= chunkSize) {
+                writeChunk(chunk, progress);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, progress);
+        }
+
+        log.info("Product import finished: {} rows, {} inserted, {} updated, {} failed",
+                progress.processed, progress.inserted, progress.updated, progress.failed);
+        return ProductImportResultDto.builder()
+                .processed(progress.processed)
+                .inserted(progress.inserted)
+                .updated(progress.updated)
+                .failed(progress.failed)
+                .errors(progress.errors)
+                .build();
+    }
+
+    private void writeChunk(Map<String, Row> chunk, Progress progress) {
+        List<Row> rows = new ArrayList<>(chunk.values());
+        chunk.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute(CHUNK_LOCK_SQL);
+            Map<String, ProductDto> existing = findByName(rows);
+            List<Row> updates = new ArrayList<>();
+            List<Row> inserts = new ArrayList<>();
+            for (Row row : rows) {
+                (existing.containsKey(row.name()) ? updates : inserts).add(row);
+            }
+
+            List<ProductChangedEvent> changes = new ArrayList<>(rows.size());
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, row) -> {
+                    ps.setString(1, row.category().name());
+                    ps.setBigDecimal(2, row.price());
+                    ps.setInt(3, row.stockQty());
+                    ps.setLong(4, existing.get(row.name()).getProductId());
+                });
+                for (Row row : updates) {
+                    ProductDto before = existing.get(row.name());
+                    changes.add(new ProductChangedEvent(before.getProductId(), before, row.toDto(before.getProductId())));
+                }
+            }
+            if (!inserts.isEmpty()) {
+                List<Long> ids = insertRows(inserts);
+                for (int i = 0; i < inserts.size(); i++) {
+                    changes.add(new ProductChangedEvent(ids.get(i), null, inserts.get(i).toDto(ids.get(i))));
+                }
+            }
+
+            eventPublisher.publishEvent(new ProductsImportedEvent(changes));
+            progress.updated += updates.size();
+            progress.inserted += inserts.size();
+        });
+    }
+
+    /** Current state of the chunk's products that already exist, keyed by name. */
+    private Map<String, ProductDto> findByName(List<Row> rows) {
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, ProductDto>>) con -> {
+            Map<String, ProductDto> products = new HashMap<>();
+            Array names = con.createArrayOf("text", rows.stream().map(Row::name).toArray());
+            // Oldest product wins if the catalog already holds duplicate names
+            try (PreparedStatement ps = con.prepareStatement(
+                    "select product_id, name, category, price, stock_qty from products "
+                            + "where name = any(?) order by product_id for update")) {
+                ps.setArray(1, names);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        products.putIfAbsent(rs.getString(2), new ProductDto(rs.getLong(1), rs.getString(2),
+                                ProductCategory.valueOf(rs.getString(3)), rs.getBigDecimal(4), rs.getInt(5)));
+                    }
+                }
+            } finally {
+                names.free();
+            }
+            return products;
+        });
+    }
+
+    /** Inserts the rows as one JDBC batch and returns the ids they were given. */
+    private List<Long> insertRows(List<Row> rows) {
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, rows.size());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Row row = rows.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setString(2, row.name());
+                ps.setString(3, row.category().name());
+                ps.setBigDecimal(4, row.price());
+                ps.setInt(5, row.stockQty());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        return ids;
+    }
+
+    private Map<String, Integer> readHeader(String line) {
+        List<String> names = splitCsv(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            // "stockQty", "stock_qty" and "Stock Qty" all name the same column
+            columns.put(names.get(i).replaceAll("[^A-Za-z]", "").toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "category", "price", "stockqty")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the " + required + " column");
+            }
+        }
+        return columns;
+    }
+
+    private Row parseCsvRow(String line, long lineNumber, Map<String, Integer> columns) {
+        List<String> fields = splitCsv(line);
+        return validate(lineNumber,
+                field(fields, columns.get("name")),
+                field(fields, columns.get("category")),
+                field(fields, columns.get("price")),
+                field(fields, columns.get("stockqty")));
+    }
+
+    private Row parseJsonRow(String line, long lineNumber) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Not a JSON object");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Not a JSON object");
+        }
+        return validate(lineNumber, text(node, "name"), text(node, "category"),
+                text(node, "price"), text(node, "stockQty"));
+    }
+
+    private Row validate(long lineNumber, String name, String category, String price, String stockQty) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        name = name.trim();
+        if (name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Name is longer than " + MAX_NAME_LENGTH + " characters");
+        }
+
+        ProductCategory parsedCategory;
+        try {
+            parsedCategory = ProductCategory.valueOf(category == null ? "" : category.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Category must be one of " + Arrays.toString(ProductCategory.values()));
+        }
+
+        BigDecimal parsedPrice;
+        try {
+            parsedPrice = new BigDecimal(price == null ? "" : price.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Price is not a number");
+        }
+        if (parsedPrice.compareTo(new BigDecimal("0.01")) < 0) {
+            throw new IllegalArgumentException("Price must be greater than 0");
+        }
+        if (parsedPrice.scale() > PRICE_SCALE || parsedPrice.precision() - parsedPrice.scale() > MAX_PRICE_DIGITS - PRICE_SCALE) {
+            throw new IllegalArgumentException("Price must have at most " + (MAX_PRICE_DIGITS - PRICE_SCALE)
+                    + " digits before and " + PRICE_SCALE + " after the decimal point");
+        }
+
+        int parsedStock;
+        try {
+            parsedStock = Integer.parseInt(stockQty == null ? "" : stockQty.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Stock quantity is not a whole number");
+        }
+        if (parsedStock < 0) {
+            throw new IllegalArgumentException("Stock quantity must be non-negative");
+        }
+
+        return new Row(name, parsedCategory, parsedPrice, parsedStock);
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /** Splits one CSV record; quoted fields may contain commas and doubled quotes but not line breaks. */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private record Row(String name, ProductCategory category, BigDecimal price, int stockQty) {
+
+        ProductDto toDto(Long productId) {
+            return new ProductDto(productId, name, category, price, stockQty);
+        }
+    }
+
+    private static final class Progress {
+        long processed;
+        long inserted;
+        long updated;
+        long failed;
+        final List<ProductImportResultDto.RowErrorDto> errors = new ArrayList<>();
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportResultDto.RowErrorDto(line, message));
+            }
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.csis231.api.service;
 
+import com.csis231.api.dto.ChangesDto;
 import com.csis231.api.dto.ProductDto;
+import com.csis231.api.entity.ChangeLogEntry;
 import com.csis231.api.entity.Product;
 import com.csis231.api.entity.ProductCategory;
+import com.csis231.api.event.ProductChangedEvent;
 import com.csis231.api.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,14 +25,41 @@ import java.util.stream.Collectors;
 public class ProductService {
     
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductCatalogCache catalogCache;
+    private final ChangeLogService changeLogService;
     
+    // Catalog reads join a caller's transaction but never open one, so cache hits need no connection
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ProductDto> getAllProducts() {
+        ProductCatalogCache.Catalog catalog = catalogCache.get();
+        if (catalog != null) {
+            return catalog.all();
+        }
         return productRepository.findAll().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    // Read from the database, not the cache: the cache may trail the token by one commit
+    @Transactional(readOnly = true)
+    public ChangesDto<ProductDto> getChanges(String since) {
+        return changeLogService.changesSince(ChangeLogEntry.EntityType.PRODUCT, since,
+                productRepository::findAllSnapshots,
+                ids -> productRepository.findAllById(ids).stream().map(this::convertToDto).collect(Collectors.toList()),
+                ProductDto::getProductId);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ProductDto getProductById(Long id) {
+        ProductCatalogCache.Catalog catalog = catalogCache.get();
+        if (catalog != null) {
+            ProductDto product = catalog.get(id);
+            if (product == null) {
+                throw new RuntimeException("Product not found with id: " + id);
+            }
+            return product;
+        }
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         return convertToDto(product);
@@ -35,41 +68,70 @@ public class ProductService {
     public ProductDto createProduct(ProductDto productDto) {
         Product product = convertToEntity(productDto);
         Product savedProduct = productRepository.save(product);
-        return convertToDto(savedProduct);
+        ProductDto created = convertToDto(savedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(created.getProductId(), null, created));
+        return created;
     }
     
     public ProductDto updateProduct(Long id, ProductDto productDto) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         
+        ProductDto before = convertToDto(product);
         product.setName(productDto.getName());
         product.setCategory(productDto.getCategory());
         product.setPrice(productDto.getPrice());
         product.setStockQty(productDto.getStockQty());
         
         Product savedProduct = productRepository.save(product);
-        return convertToDto(savedProduct);
+        ProductDto updated = convertToDto(savedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, before, updated));
+        return updated;
     }
     
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new RuntimeException("Product not found with id: " + id);
-        }
-        productRepository.deleteById(id);
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, convertToDto(product), null));
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ProductDto> getProductsByCategory(ProductCategory category) {
+        ProductCatalogCache.Catalog catalog = catalogCache.get();
+        if (catalog != null) {
+            return catalog.category(category);
+        }
         return productRepository.findByCategory(category).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ProductDto> getAvailableProducts() {
+        ProductCatalogCache.Catalog catalog = catalogCache.get();
+        if (catalog != null) {
+            return catalog.inStock();
+        }
         return productRepository.findByStockQtyGreaterThan(0).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ProductDto> getLowStockProducts(int threshold) {
+        ProductCatalogCache.Catalog catalog = catalogCache.get();
+        if (catalog != null) {
+            return catalog.all().stream()
+                    .filter(p -> p.getStockQty() != null && p.getStockQty() <= threshold)
+                    .sorted(Comparator.comparing(ProductDto::getStockQty))
+                    .collect(Collectors.toList());
+        }
+        return productRepository.findByStockQtyLessThanEqualOrderByStockQtyAsc(threshold).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+    
     private ProductDto convertToDto(Product product) {
         return ProductDto.builder()
                 .productId(product.getProductId())
@@ -0,0 +1,53 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.SalesReportDto;
+import com.csis231.api.dto.SalesReportRowDto;
+import com.csis231.api.repository.OrderItemRepository;
+import com.csis231.api.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ReportService {
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+
+    /** Sales of the orders placed in [from, to), the same range the order page and export use. */
+    public SalesReportDto getSalesReport(LocalDateTime from, LocalDateTime to, SalesReportDto.GroupBy groupBy) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+
+        List<SalesReportRowDto> rows = switch (groupBy) {
+            case PRODUCT -> orderItemRepository.sumSalesByProduct(from, to);
+            case CATEGORY -> orderItemRepository.sumSalesByCategory(from, to);
+            case DAY -> orderItemRepository.sumSalesByDay(from, to);
+        };
+
+        // Every order line falls in exactly one group, so the totals are the sums of the rows
+        long totalItemsSold = rows.stream().mapToLong(SalesReportRowDto::getQuantitySold).sum();
+        BigDecimal totalRevenue = rows.stream()
+                .map(SalesReportRowDto::getRevenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return SalesReportDto.builder()
+                .from(from)
+                .to(to)
+                .groupBy(groupBy)
+                .rows(rows)
+                .totalOrders(orderRepository.countByPlacedAtGreaterThanEqualAndPlacedAtLessThan(from, to))
+                .totalItemsSold(totalItemsSold)
+                .totalRevenue(totalRevenue)
+                .build();
+    }
+}
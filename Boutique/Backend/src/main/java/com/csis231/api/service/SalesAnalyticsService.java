@@ -0,0 +1,248 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.ProductDto;
+import com.csis231.api.dto.SalesReportDto;
+import com.csis231.api.dto.SalesReportRowDto;
+import com.csis231.api.entity.Order;
+import com.csis231.api.entity.ProductCategory;
+import com.csis231.api.event.OrderChangedEvent;
+import com.csis231.api.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sales reports over fulfilled orders, answered from an in-memory {@link SalesColumnStore}
+ * instead of the database. The store is filled once at startup and then grows by one order
+ * each time an order becomes FULFILLED. Fulfilled orders can no longer be edited, cancelled
+ * or deleted, so appending is all it takes to stay in step with the database.
+ *
+ * Orders fulfilled while the startup load is running are queued and appended afterwards
+ * unless the load already picked them up.
+ */
+@Service
+@Slf4j
+public class SalesAnalyticsService {
+
+    private static final String LINES_SQL =
+            "select o.order_id, o.placed_at, i.product_id, p.category, i.quantity, i.subtotal "
+                    + "from orders o "
+                    + "join order_items i on i.order_id = o.order_id "
+                    + "join products p on p.product_id = i.product_id "
+                    + "where o.o_status = 'FULFILLED'";
+    private static final int LOAD_FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductCatalogCache catalogCache;
+    private final ProductRepository productRepository;
+    private final SalesColumnStore store = new SalesColumnStore();
+
+    // Guarded by this
+    private boolean loading;
+    private boolean loaded;
+    private final Set<Long> fulfilledWhileLoading = new LinkedHashSet<>();
+
+    public SalesAnalyticsService(JdbcTemplate jdbcTemplate,
+                                 ProductCatalogCache catalogCache,
+                                 ProductRepository productRepository,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogCache = catalogCache;
+        this.productRepository = productRepository;
+        Gauge.builder("boutique.analytics.sales.lines", store, SalesColumnStore::size)
+                .description("Fulfilled order lines held in the sales analytics store").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        synchronized (this) {
+            if (loading || loaded) {
+                return;
+            }
+            loading = true;
+        }
+
+        long started = System.nanoTime();
+        // Lines arrive grouped by order, which is how the store wants them appended
+        OrderLinesCollector collector = new OrderLinesCollector();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LINES_SQL + " order by o.order_id, i.id");
+            ps.setFetchSize(LOAD_FETCH_SIZE);
+            return ps;
+        }, collector);
+        collector.flush();
+
+        List<Long> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(fulfilledWhileLoading);
+            fulfilledWhileLoading.clear();
+            for (Long orderId : pending) {
+                if (!store.containsOrder(orderId)) {
+                    appendOrder(orderId);
+                }
+            }
+            loading = false;
+            loaded = true;
+        }
+        log.info("Sales analytics loaded {} fulfilled order lines in {} ms",
+                store.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.status() != Order.OrderStatus.FULFILLED || event.previousStatus() == Order.OrderStatus.FULFILLED) {
+            return;
+        }
+        synchronized (this) {
+            if (loading) {
+                fulfilledWhileLoading.add(event.orderId());
+                return;
+            }
+            if (!loaded) {
+                // The startup load has not begun yet and will read this order itself
+                return;
+            }
+        }
+        appendOrder(event.orderId());
+    }
+
+    public boolean isLoaded() {
+        synchronized (this) {
+            return loaded;
+        }
+    }
+
+    /**
+     * Report over orders fulfilled so far that were placed between the two dates, inclusive.
+     * Throws IllegalStateException while the store is still loading.
+     */
+    public SalesReportDto getFulfilledSalesReport(LocalDate from,
+                                                  LocalDate to,
+                                                  SalesReportDto.GroupBy groupBy,
+                                                  ProductCategory category,
+                                                  Long productId) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must be before or equal to to");
+        }
+        if (!isLoaded()) {
+            throw new IllegalStateException("Sales analytics are still loading");
+        }
+
+        SalesColumnStore.Result result = store.aggregate((int) from.toEpochDay(), (int) to.toEpochDay(),
+                category, productId, groupBy);
+
+        List<SalesReportRowDto> rows = new ArrayList<>();
+        long totalItemsSold = 0;
+        long totalCents = 0;
+        for (int g = 0; g < result.groups(); g++) {
+            if (result.lines()[g] == 0) {
+                continue;
+            }
+            SalesReportRowDto row = switch (groupBy) {
+                case PRODUCT -> new SalesReportRowDto(result.productId(g), null, null,
+                        result.quantities()[g], BigDecimal.valueOf(result.amountCents()[g], 2));
+                case CATEGORY -> new SalesReportRowDto(result.category(g),
+                        result.quantities()[g], BigDecimal.valueOf(result.amountCents()[g], 2));
+                case DAY -> new SalesReportRowDto(LocalDate.ofEpochDay(result.epochDay(g)),
+                        result.quantities()[g], BigDecimal.valueOf(result.amountCents()[g], 2));
+            };
+            rows.add(row);
+            totalItemsSold += result.quantities()[g];
+            totalCents += result.amountCents()[g];
+        }
+
+        if (groupBy == SalesReportDto.GroupBy.PRODUCT) {
+            fillProductDetails(rows);
+        }
+        if (groupBy != SalesReportDto.GroupBy.DAY) {
+            rows.sort(Comparator.comparing(SalesReportRowDto::getRevenue).reversed());
+        }
+
+        return SalesReportDto.builder()
+                .from(from.atStartOfDay())
+                .to(to.plusDays(1).atStartOfDay())
+                .groupBy(groupBy)
+                .rows(rows)
+                .totalOrders(result.orders())
+                .totalItemsSold(totalItemsSold)
+                .totalRevenue(BigDecimal.valueOf(totalCents, 2))
+                .build();
+    }
+
+    private void fillProductDetails(List<SalesReportRowDto> rows) {
+        ProductCatalogCache.Catalog catalog = catalogCache.get();
+        Map<Long, ProductDto> products = new HashMap<>();
+        if (catalog != null) {
+            for (SalesReportRowDto row : rows) {
+                ProductCatalogCache.CachedProduct product = catalog.product(row.getProductId());
+                if (product != null) {
+                    products.put(product.productId(), product.toDto());
+                }
+            }
+        } else {
+            List<Long> ids = rows.stream().map(SalesReportRowDto::getProductId).toList();
+            productRepository.findAllById(ids).forEach(p -> products.put(p.getProductId(),
+                    ProductDto.builder().productId(p.getProductId()).name(p.getName()).category(p.getCategory()).build()));
+        }
+        for (SalesReportRowDto row : rows) {
+            ProductDto product = products.get(row.getProductId());
+            if (product != null) {
+                row.setProductName(product.getName());
+                row.setCategory(product.getCategory());
+            }
+        }
+    }
+
+    private void appendOrder(Long orderId) {
+        OrderLinesCollector collector = new OrderLinesCollector();
+        jdbcTemplate.query(LINES_SQL + " and o.order_id = ? order by i.id", collector, orderId);
+        collector.flush();
+    }
+
+    /** Buffers the lines of the current order and appends them once the next order starts. */
+    private class OrderLinesCollector implements RowCallbackHandler {
+        private final List<SalesColumnStore.Line> lines = new ArrayList<>();
+        private long orderId = -1;
+        private int epochDay;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long rowOrderId = rs.getLong(1);
+            if (rowOrderId != orderId) {
+                flush();
+                orderId = rowOrderId;
+                epochDay = (int) rs.getTimestamp(2).toLocalDateTime().toLocalDate().toEpochDay();
+            }
+            lines.add(new SalesColumnStore.Line(rs.getLong(3), ProductCategory.valueOf(rs.getString(4)),
+                    rs.getInt(5), rs.getBigDecimal(6).movePointRight(2).longValueExact()));
+        }
+
+        void flush() {
+            if (!lines.isEmpty()) {
+                store.append(orderId, epochDay, lines);
+                lines.clear();
+            }
+        }
+    }
+}
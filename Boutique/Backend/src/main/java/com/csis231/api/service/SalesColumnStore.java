@@ -0,0 +1,280 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.SalesReportDto;
+import com.csis231.api.entity.ProductCategory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Append-only, column-oriented copy of fulfilled order lines: one primitive array per
+ * attribute, so an aggregation is a tight loop over a few arrays instead of a join over
+ * order_items and orders. Products are dictionary-encoded into dense slots, which lets
+ * per-product totals live in plain arrays as well.
+ *
+ * Writers append under a lock and then publish a new {@link Columns} snapshot through a
+ * volatile field. Arrays are only ever written past the size of every published snapshot,
+ * so readers never lock and never see a partly written line. Lines of one order are
+ * appended together, which is what lets scans count distinct orders.
+ */
+public class SalesColumnStore {
+
+    /** Scans over more lines than this are split across the common fork-join pool. */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int CATEGORY_COUNT = ProductCategory.values().length;
+
+    // Guarded by this
+    private final Map<Long, Integer> slotByProductId = new HashMap<>();
+    private final Set<Long> orderIds = new HashSet<>();
+
+    private volatile Columns columns = Columns.empty();
+
+    public record Line(long productId, ProductCategory category, int quantity, long amountCents) {
+    }
+
+    /** Appends all lines of one fulfilled order placed on the given epoch day; an order already held is ignored. */
+    public synchronized void append(long orderId, int epochDay, List<Line> lines) {
+        if (lines.isEmpty() || !orderIds.add(orderId)) {
+            return;
+        }
+        Columns c = columns.withCapacity(columns.size() + lines.size(), slotByProductId.size() + lines.size());
+        int size = c.size();
+        int slotCount = c.slotCount();
+        for (Line line : lines) {
+            Integer slot = slotByProductId.get(line.productId());
+            if (slot == null) {
+                slot = slotCount++;
+                slotByProductId.put(line.productId(), slot);
+                c.slotProductIds()[slot] = line.productId();
+            }
+            c.orderIds()[size] = orderId;
+            c.epochDays()[size] = epochDay;
+            c.categories()[size] = (byte) line.category().ordinal();
+            c.productSlots()[size] = slot;
+            c.quantities()[size] = line.quantity();
+            c.amountCents()[size] = line.amountCents();
+            size++;
+        }
+        columns = new Columns(c.orderIds(), c.epochDays(), c.categories(), c.productSlots(), c.quantities(),
+                c.amountCents(), size, c.slotProductIds(), slotCount,
+                Math.min(c.minDay(), epochDay), Math.max(c.maxDay(), epochDay));
+    }
+
+    public int size() {
+        return columns.size();
+    }
+
+    public synchronized boolean containsOrder(long orderId) {
+        return orderIds.contains(orderId);
+    }
+
+    /**
+     * Totals of the lines placed on days [fromDay, toDay], optionally limited to one category
+     * and/or product, grouped as requested.
+     */
+    public Result aggregate(int fromDay, int toDay, ProductCategory category, Long productId,
+                            SalesReportDto.GroupBy groupBy) {
+        Columns c = columns;
+        int from = Math.max(fromDay, c.minDay());
+        int to = Math.min(toDay, c.maxDay());
+
+        int productSlot = -1;
+        if (productId != null) {
+            productSlot = slotOf(c, productId);
+            if (productSlot < 0) {
+                return Result.empty(c, groupBy, from);
+            }
+        }
+        if (c.size() == 0 || from > to) {
+            return Result.empty(c, groupBy, from);
+        }
+
+        int groups = switch (groupBy) {
+            case PRODUCT -> c.slotCount();
+            case CATEGORY -> CATEGORY_COUNT;
+            case DAY -> to - from + 1;
+        };
+        Scan scan = new Scan(c, from, to, category == null ? -1 : category.ordinal(), productSlot, groupBy, groups);
+        Partial totals = c.size() > PARALLEL_THRESHOLD
+                ? ForkJoinPool.commonPool().invoke(new ScanTask(scan, 0, c.size()))
+                : scan.run(0, c.size());
+        return new Result(groupBy, from, c.slotProductIds(), totals.quantities, totals.amountCents,
+                totals.lines, totals.orders);
+    }
+
+    private int slotOf(Columns c, long productId) {
+        synchronized (this) {
+            Integer slot = slotByProductId.get(productId);
+            // A product first sold after this snapshot was taken has no lines in it
+            return slot == null || slot >= c.slotCount() ? -1 : slot;
+        }
+    }
+
+    /** Per-group totals, indexed by product slot, category ordinal or day offset from {@code fromDay}. */
+    public record Result(SalesReportDto.GroupBy groupBy,
+                         int fromDay,
+                         long[] slotProductIds,
+                         long[] quantities,
+                         long[] amountCents,
+                         long[] lines,
+                         long orders) {
+
+        static Result empty(Columns c, SalesReportDto.GroupBy groupBy, int fromDay) {
+            return new Result(groupBy, fromDay, c.slotProductIds(), new long[0], new long[0], new long[0], 0);
+        }
+
+        public int groups() {
+            return quantities.length;
+        }
+
+        public long productId(int group) {
+            return slotProductIds[group];
+        }
+
+        public ProductCategory category(int group) {
+            return ProductCategory.values()[group];
+        }
+
+        public int epochDay(int group) {
+            return fromDay + group;
+        }
+    }
+
+    private record Columns(long[] orderIds,
+                           int[] epochDays,
+                           byte[] categories,
+                           int[] productSlots,
+                           int[] quantities,
+                           long[] amountCents,
+                           int size,
+                           long[] slotProductIds,
+                           int slotCount,
+                           int minDay,
+                           int maxDay) {
+
+        static Columns empty() {
+            return new Columns(new long[INITIAL_CAPACITY], new int[INITIAL_CAPACITY], new byte[INITIAL_CAPACITY],
+                    new int[INITIAL_CAPACITY], new int[INITIAL_CAPACITY], new long[INITIAL_CAPACITY], 0,
+                    new long[INITIAL_CAPACITY], 0, Integer.MAX_VALUE, Integer.MIN_VALUE);
+        }
+
+        /** Same data in arrays that can hold at least the given number of lines and products. */
+        Columns withCapacity(int lines, int products) {
+            Columns c = this;
+            if (lines > orderIds.length) {
+                int capacity = Math.max(lines, orderIds.length * 2);
+                c = new Columns(Arrays.copyOf(orderIds, capacity), Arrays.copyOf(epochDays, capacity),
+                        Arrays.copyOf(categories, capacity), Arrays.copyOf(productSlots, capacity),
+                        Arrays.copyOf(quantities, capacity), Arrays.copyOf(amountCents, capacity),
+                        size, slotProductIds, slotCount, minDay, maxDay);
+            }
+            if (products > c.slotProductIds().length) {
+                c = new Columns(c.orderIds(), c.epochDays(), c.categories(), c.productSlots(), c.quantities(),
+                        c.amountCents(), size, Arrays.copyOf(slotProductIds, Math.max(products, slotProductIds.length * 2)),
+                        slotCount, minDay, maxDay);
+            }
+            return c;
+        }
+    }
+
+    private static final class Partial {
+        final long[] quantities;
+        final long[] amountCents;
+        final long[] lines;
+        long orders;
+
+        Partial(int groups) {
+            quantities = new long[groups];
+            amountCents = new long[groups];
+            lines = new long[groups];
+        }
+
+        Partial merge(Partial other) {
+            for (int g = 0; g < quantities.length; g++) {
+                quantities[g] += other.quantities[g];
+                amountCents[g] += other.amountCents[g];
+                lines[g] += other.lines[g];
+            }
+            orders += other.orders;
+            return this;
+        }
+    }
+
+    private record Scan(Columns c, int fromDay, int toDay, int category, int productSlot,
+                        SalesReportDto.GroupBy groupBy, int groups) {
+
+        Partial run(int start, int end) {
+            Partial totals = new Partial(groups);
+            long[] orderIds = c.orderIds();
+            int[] days = c.epochDays();
+            byte[] categories = c.categories();
+            int[] slots = c.productSlots();
+            int[] quantities = c.quantities();
+            long[] amounts = c.amountCents();
+
+            long lastOrder = Long.MIN_VALUE;
+            for (int i = start; i < end; i++) {
+                int day = days[i];
+                if (day < fromDay || day > toDay
+                        || (category >= 0 && categories[i] != category)
+                        || (productSlot >= 0 && slots[i] != productSlot)) {
+                    continue;
+                }
+                int group = switch (groupBy) {
+                    case PRODUCT -> slots[i];
+                    case CATEGORY -> categories[i];
+                    case DAY -> day - fromDay;
+                };
+                totals.quantities[group] += quantities[i];
+                totals.amountCents[group] += amounts[i];
+                totals.lines[group]++;
+                // Lines of an order are contiguous, so each new order id starts a new order
+                if (orderIds[i] != lastOrder) {
+                    totals.orders++;
+                    lastOrder = orderIds[i];
+                }
+            }
+            return totals;
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<Partial> {
+        private final Scan scan;
+        private final int start;
+        private final int end;
+
+        ScanTask(Scan scan, int start, int end) {
+            this.scan = scan;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (end - start <= PARALLEL_THRESHOLD) {
+                return scan.run(start, end);
+            }
+            // Split on an order boundary so no order is counted in both halves
+            long[] orderIds = scan.c().orderIds();
+            int mid = (start + end) >>> 1;
+            while (mid < end && orderIds[mid] == orderIds[mid - 1]) {
+                mid++;
+            }
+            if (mid == end) {
+                return scan.run(start, end);
+            }
+            ScanTask left = new ScanTask(scan, start, mid);
+            left.fork();
+            Partial right = new ScanTask(scan, mid, end).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.csis231.api.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted Space-Saving summary (Metwally et al.) tracking at most {@code capacity} items.
+ * When a new item arrives and the summary is full, it takes over the counter with the
+ * smallest count and inherits that count as its error.
+ *
+ * Every count is an upper bound on the item's true weight and overstates it by at most its
+ * error. Errors never exceed {@link #minCount()}, which is at most total / capacity, and any
+ * item heavier than {@link #minCount()} is guaranteed to be tracked. Not thread-safe.
+ */
+public class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+    // Min-heap on count, so the counter to replace is always at the root
+    private final Counter[] heap;
+    private int size;
+    private long total;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    public record Entry(long item, long count, long error) {
+    }
+
+    public void offer(long item, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        total += weight;
+
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            counter.count += weight;
+            siftDown(counter.index);
+            return;
+        }
+
+        if (size < capacity) {
+            counter = new Counter(item, weight, 0);
+            counter.index = size;
+            heap[size++] = counter;
+            counters.put(item, counter);
+            siftUp(counter.index);
+            return;
+        }
+
+        Counter min = heap[0];
+        counters.remove(min.item);
+        min.item = item;
+        min.error = min.count;
+        min.count += weight;
+        counters.put(item, min);
+        siftDown(0);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /** Upper bound on the weight of any item that is not tracked; 0 until the summary fills up. */
+    public long minCount() {
+        return isFull() ? heap[0].count : 0;
+    }
+
+    public List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new Entry(heap[i].item, heap[i].count, heap[i].error));
+        }
+        return entries;
+    }
+
+    private void siftUp(int i) {
+        Counter counter = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], i);
+            i = parent;
+        }
+        place(counter, i);
+    }
+
+    private void siftDown(int i) {
+        Counter counter = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], i);
+            i = child;
+        }
+        place(counter, i);
+    }
+
+    private void place(Counter counter, int i) {
+        heap[i] = counter;
+        counter.index = i;
+    }
+
+    private static final class Counter {
+        long item;
+        long count;
+        long error;
+        int index;
+
+        Counter(long item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.TopProductsDto;
+import com.csis231.api.entity.Order;
+import com.csis231.api.entity.Product;
+import com.csis231.api.event.OrderChangedEvent;
+import com.csis231.api.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Best-selling products over the last few days, answered from one {@link SpaceSavingSketch}
+ * per day instead of scanning order lines. Units are counted by the day the order was
+ * placed, once the order is fulfilled; lines of pending orders can still be removed and a
+ * sketch cannot take units back.
+ *
+ * A window merges its daily sketches. A product missing from a full daily sketch is charged
+ * that sketch's smallest count, so every reported figure stays an upper bound, and the
+ * overstatement is at most the sum of those smallest counts: no more than the window's total
+ * units divided by the capacity. Query cost depends on window days and capacity only.
+ */
+@Service
+@Slf4j
+public class TopProductsService {
+
+    private static final String LINES_SQL =
+            "select o.order_id, cast(o.placed_at as date), i.product_id, sum(i.quantity) "
+                    + "from orders o join order_items i on i.order_id = o.order_id "
+                    + "where o.o_status = 'FULFILLED' ";
+    private static final String GROUP_BY = " group by o.order_id, cast(o.placed_at as date), i.product_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductCatalogCache catalogCache;
+    private final ProductRepository productRepository;
+    private final int capacity;
+    private final int windowDays;
+
+    // Guarded by this
+    private final TreeMap<LocalDate, SpaceSavingSketch> sketchByDay = new TreeMap<>();
+    // Orders already in the sketches, by placed day, so a late fulfilment event cannot add one twice
+    private final TreeMap<LocalDate, Set<Long>> recordedOrdersByDay = new TreeMap<>();
+    private boolean loading;
+    private boolean loaded;
+    private final Set<Long> fulfilledWhileLoading = new LinkedHashSet<>();
+
+    public TopProductsService(JdbcTemplate jdbcTemplate,
+                              ProductCatalogCache catalogCache,
+                              ProductRepository productRepository,
+                              @Value("${boutique.top-products.capacity:256}") int capacity,
+                              @Value("${boutique.top-products.window-days:35}") int windowDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogCache = catalogCache;
+        this.productRepository = productRepository;
+        this.capacity = capacity;
+        this.windowDays = windowDays;
+    }
+
+    private record Sale(long orderId, LocalDate day, long productId, long units) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            if (loading || loaded) {
+                return;
+            }
+            loading = true;
+        }
+
+        // An order's lines may be spread over the result, so every row is recorded here
+        jdbcTemplate.query(LINES_SQL + "and o.placed_at >= ?" + GROUP_BY, rs -> {
+            Sale sale = new Sale(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getLong(3), rs.getLong(4));
+            synchronized (this) {
+                recordedOrders(sale.day()).add(sale.orderId());
+                record(sale);
+            }
+        }, firstDay().atStartOfDay());
+
+        int orders;
+        synchronized (this) {
+            for (Long orderId : fulfilledWhileLoading) {
+                recordOrder(orderId, salesOf(orderId));
+            }
+            fulfilledWhileLoading.clear();
+            loading = false;
+            loaded = true;
+            orders = recordedOrdersByDay.values().stream().mapToInt(Set::size).sum();
+        }
+        log.info("Top products loaded from {} fulfilled orders", orders);
+    }
+
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.status() != Order.OrderStatus.FULFILLED || event.previousStatus() == Order.OrderStatus.FULFILLED) {
+            return;
+        }
+        synchronized (this) {
+            if (loading) {
+                fulfilledWhileLoading.add(event.orderId());
+                return;
+            }
+            if (!loaded) {
+                // The startup load has not begun yet and will read this order itself
+                return;
+            }
+        }
+        // The startup load may already have read this order if it committed before the load's query
+        List<Sale> sales = salesOf(event.orderId());
+        synchronized (this) {
+            recordOrder(event.orderId(), sales);
+        }
+    }
+
+    /** Best sellers among fulfilled orders placed in the last {@code days} days, today included. */
+    public TopProductsDto getTopProducts(int days, int limit) {
+        if (days < 1 || days > windowDays) {
+            throw new IllegalArgumentException("days must be between 1 and " + windowDays);
+        }
+        if (limit < 1 || limit > capacity) {
+            throw new IllegalArgumentException("limit must be between 1 and " + capacity);
+        }
+
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1);
+        long totalUnits = 0;
+        long slack = 0;
+        // Per product: units and error accumulated beyond the slack charged to every product
+        Map<Long, long[]> merged = new HashMap<>();
+        synchronized (this) {
+            if (!loaded) {
+                throw new IllegalStateException("Top products are still loading");
+            }
+            prune();
+            for (SpaceSavingSketch sketch : sketchByDay.subMap(from, true, to, true).values()) {
+                long min = sketch.minCount();
+                slack += min;
+                totalUnits += sketch.total();
+                for (SpaceSavingSketch.Entry entry : sketch.entries()) {
+                    long[] totals = merged.computeIfAbsent(entry.item(), id -> new long[2]);
+                    totals[0] += entry.count() - min;
+                    totals[1] += entry.error() - min;
+                }
+            }
+        }
+
+        long maxError = slack;
+        List<TopProductsDto.EntryDto> products = merged.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, long[]> e) -> e.getValue()[0]).reversed())
+                .limit(limit)
+                .map(e -> TopProductsDto.EntryDto.builder()
+                        .productId(e.getKey())
+                        .units(maxError + e.getValue()[0])
+                        .minUnits(e.getValue()[0] - e.getValue()[1])
+                        .build())
+                .collect(Collectors.toList());
+        fillProductDetails(products);
+
+        return TopProductsDto.builder()
+                .from(from)
+                .to(to)
+                .totalUnits(totalUnits)
+                .maxError(maxError)
+                .products(products)
+                .build();
+    }
+
+    private void fillProductDetails(List<TopProductsDto.EntryDto> products) {
+        ProductCatalogCache.Catalog catalog = catalogCache.get();
+        Map<Long, Product> fromDatabase = new HashMap<>();
+        if (catalog == null) {
+            productRepository.findAllById(products.stream().map(TopProductsDto.EntryDto::getProductId).toList())
+                    .forEach(product -> fromDatabase.put(product.getProductId(), product));
+        }
+        for (TopProductsDto.EntryDto entry : products) {
+            if (catalog != null) {
+                ProductCatalogCache.CachedProduct product = catalog.product(entry.getProductId());
+                if (product != null) {
+                    entry.setProductName(product.name());
+                    entry.setCategory(product.category());
+                }
+            } else if (fromDatabase.containsKey(entry.getProductId())) {
+                Product product = fromDatabase.get(entry.getProductId());
+                entry.setProductName(product.getName());
+                entry.setCategory(product.getCategory());
+            }
+        }
+    }
+
+    private List<Sale> salesOf(Long orderId) {
+        return jdbcTemplate.query(LINES_SQL + "and o.order_id = ?" + GROUP_BY,
+                (rs, i) -> new Sale(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getLong(3), rs.getLong(4)),
+                orderId);
+    }
+
+    // Caller holds the lock
+    private void recordOrder(Long orderId, List<Sale> sales) {
+        // All lines of an order share its placed day
+        if (sales.isEmpty() || sales.get(0).day().isBefore(firstDay())) {
+            return;
+        }
+        if (recordedOrders(sales.get(0).day()).add(orderId)) {
+            sales.forEach(this::record);
+        }
+    }
+
+    // Caller holds the lock
+    private Set<Long> recordedOrders(LocalDate day) {
+        return recordedOrdersByDay.computeIfAbsent(day, d -> new HashSet<>());
+    }
+
+    // Caller holds the lock
+    private void record(Sale sale) {
+        if (sale.day().isBefore(firstDay())) {
+            return;
+        }
+        sketchByDay.computeIfAbsent(sale.day(), day -> new SpaceSavingSketch(capacity))
+                .offer(sale.productId(), sale.units());
+        prune();
+    }
+
+    // Caller holds the lock
+    private void prune() {
+        sketchByDay.headMap(firstDay()).clear();
+        recordedOrdersByDay.headMap(firstDay()).clear();
+    }
+
+    private LocalDate firstDay() {
+        return LocalDate.now().minusDays(windowDays - 1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.csis231.api;
+
+import com.csis231.api.dto.CheckoutRequestDto;
+import com.csis231.api.dto.CustomerDto;
+import com.csis231.api.dto.OrderDto;
+import com.csis231.api.dto.OrderItemDto;
+import com.csis231.api.dto.ProductDto;
+import com.csis231.api.entity.Order;
+import com.csis231.api.entity.ProductCategory;
+import com.csis231.api.service.CustomerService;
+import com.csis231.api.service.OrderItemService;
+import com.csis231.api.service.OrderService;
+import com.csis231.api.service.ProductService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Row builders for integration tests; names are unique per call. */
+public final class TestData {
+    private TestData() {}
+
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime());
+
+    public static String unique(String prefix) {
+        return prefix + "-" + SEQUENCE.incrementAndGet();
+    }
+
+    public static ProductDto product(ProductService productService, String price, int stock) {
+        return productService.createProduct(ProductDto.builder()
+                .name(unique("product"))
+                .category(ProductCategory.HANDBAGS)
+                .price(new BigDecimal(price))
+                .stockQty(stock)
+                .build());
+    }
+
+    public static CustomerDto customer(CustomerService customerService) {
+        return customerService.createCustomer(CustomerDto.builder()
+                .name(unique("customer"))
+                .contact(unique("contact"))
+                .build());
+    }
+
+    /** A pending order with one line per product/quantity pair. */
+    public static OrderDto pendingOrder(OrderService orderService, OrderItemService orderItemService,
+                                        Long customerId, Object... productQuantities) {
+        OrderDto order = orderService.createOrder(OrderDto.builder()
+                .customerId(customerId)
+                .status(Order.OrderStatus.PENDING)
+                .build());
+        for (int i = 0; i < productQuantities.length; i += 2) {
+            orderItemService.addOrderItem(order.getOrderId(), OrderItemDto.builder()
+                    .orderId(order.getOrderId())
+                    .productId((Long) productQuantities[i])
+                    .quantity((Integer) productQuantities[i + 1])
+                    .build());
+        }
+        return order;
+    }
+
+    /** A checkout request with one line per product/quantity pair. */
+    public static CheckoutRequestDto checkout(Long customerId, boolean fulfill, Object... productQuantities) {
+        List<CheckoutRequestDto.LineDto> lines = new ArrayList<>();
+        for (int i = 0; i < productQuantities.length; i += 2) {
+            lines.add(new CheckoutRequestDto.LineDto((Long) productQuantities[i], (Integer) productQuantities[i + 1]));
+        }
+        return CheckoutRequestDto.builder()
+                .customerId(customerId)
+                .fulfill(fulfill)
+                .lines(lines)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.csis231.api.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadFilterTest {
+
+    @Test
+    void classifiesEveryEndpointClass() {
+        assertEquals(Bulkhead.Type.CHECKOUT, BulkheadFilter.classify("POST", "/api/checkout"));
+        assertEquals(Bulkhead.Type.CHECKOUT, BulkheadFilter.classify("POST", "/api/orders/5/items"));
+        assertEquals(Bulkhead.Type.CHECKOUT, BulkheadFilter.classify("POST", "/api/orders/5/close"));
+
+        assertEquals(Bulkhead.Type.CATALOG, BulkheadFilter.classify("GET", "/api/products"));
+        assertEquals(Bulkhead.Type.CATALOG, BulkheadFilter.classify("GET", "/api/customers/3"));
+        assertEquals(Bulkhead.Type.CATALOG, BulkheadFilter.classify("GET", "/api/orders/5"));
+        assertEquals(Bulkhead.Type.CATALOG, BulkheadFilter.classify("GET", "/api/dashboard/summary"));
+
+        assertEquals(Bulkhead.Type.ADMIN, BulkheadFilter.classify("POST", "/api/products"));
+        assertEquals(Bulkhead.Type.ADMIN, BulkheadFilter.classify("PUT", "/api/products/7"));
+        assertEquals(Bulkhead.Type.ADMIN, BulkheadFilter.classify("DELETE", "/api/customers/3"));
+
+        assertEquals(Bulkhead.Type.REPORTING, BulkheadFilter.classify("POST", "/api/products/import"));
+        assertEquals(Bulkhead.Type.REPORTING, BulkheadFilter.classify("POST", "/api/orders/repair-totals"));
+        assertEquals(Bulkhead.Type.REPORTING, BulkheadFilter.classify("GET", "/api/orders/export"));
+        assertEquals(Bulkhead.Type.REPORTING, BulkheadFilter.classify("GET", "/api/reports/sales"));
+
+        assertEquals(Bulkhead.Type.AUTH, BulkheadFilter.classify("POST", "/api/auth/login"));
+        assertEquals(Bulkhead.Type.EVENTS, BulkheadFilter.classify("GET", "/api/events"));
+        assertNull(BulkheadFilter.classify("GET", "/actuator/health"));
+    }
+
+    @Test
+    void fullBulkheadWithoutQueueRejectsAtOnce() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead(Bulkhead.Type.EVENTS, 1, 0, 0);
+
+        assertTrue(bulkhead.tryEnter());
+        assertFalse(bulkhead.tryEnter());
+        assertEquals(1, bulkhead.getRejected());
+        bulkhead.exit();
+        assertTrue(bulkhead.tryEnter());
+    }
+}
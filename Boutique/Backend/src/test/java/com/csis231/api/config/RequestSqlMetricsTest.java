@@ -0,0 +1,79 @@
+package com.csis231.api.config;
+
+import com.csis231.api.PostgresIntegrationTest;
+import com.csis231.api.TestData;
+import com.csis231.api.dto.OrderDto;
+import com.csis231.api.dto.ProductDto;
+import com.csis231.api.service.CheckoutService;
+import com.csis231.api.service.CustomerService;
+import com.csis231.api.service.ProductCatalogCache;
+import com.csis231.api.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Guards the number of SQL statements the hottest requests run, as reported per request. */
+class RequestSqlMetricsTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private CheckoutService checkoutService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Test
+    void orderByIdRunsOneStatement() throws Exception {
+        Long customerId = TestData.customer(customerService).getCustomerId();
+        ProductDto product = TestData.product(productService, "3.00", 10);
+        OrderDto order = checkoutService.checkout(TestData.checkout(customerId, false, product.getProductId(), 2));
+
+        double before = statements("GET", "/api/orders/{id}");
+        mockMvc.perform(get("/api/orders/" + order.getOrderId())).andExpect(status().isOk());
+
+        assertEquals(1, statements("GET", "/api/orders/{id}") - before);
+    }
+
+    @Test
+    void checkoutRunsSixStatements() throws Exception {
+        Long customerId = TestData.customer(customerService).getCustomerId();
+        ProductDto first = TestData.product(productService, "3.00", 10);
+        ProductDto second = TestData.product(productService, "4.00", 10);
+        String body = objectMapper.writeValueAsString(TestData.checkout(customerId, false,
+                first.getProductId(), 2, second.getProductId(), 1));
+
+        // A loaded catalog re-reads each sold product after commit; that is the cache's cost, not checkout's
+        productCatalogCache.invalidate();
+        double before = statements("POST", "/api/checkout");
+        mockMvc.perform(post("/api/checkout").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().is2xxSuccessful());
+
+        // Customer, batched stock reservation, products, order insert, batched items, change log
+        assertEquals(6, statements("POST", "/api/checkout") - before);
+    }
+
+    private double statements(String method, String uri) {
+        DistributionSummary summary = meterRegistry.find("boutique.request.sql.statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+}
@@ -0,0 +1,92 @@
+package com.csis231.api.service;
+
+import com.csis231.api.PostgresIntegrationTest;
+import com.csis231.api.TestData;
+import com.csis231.api.dto.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedFanOutTest extends PostgresIntegrationTest {
+
+    private static final int SUBSCRIBERS = 300;
+    private static final int EVENTS = 50;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void everySubscriberGetsEveryEventDespiteAStalledClient() throws Exception {
+        ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(32)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/events"))
+                .header("Accept", "text/event-stream")
+                .build();
+        CountDownLatch delivered = new CountDownLatch(SUBSCRIBERS);
+        AtomicInteger frames = new AtomicInteger();
+        int baseline = changeFeedService.getSubscriberCount();
+
+        // Connects but never reads, so writes to it eventually block
+        try (Socket stalled = new Socket("localhost", port)) {
+            OutputStream out = stalled.getOutputStream();
+            out.write(("GET /api/events HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            for (int i = 0; i < SUBSCRIBERS; i++) {
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofLines()).thenAcceptAsync(response -> {
+                    int mine = 0;
+                    for (Iterator<String> lines = response.body().iterator(); lines.hasNext(); ) {
+                        if (lines.next().startsWith("data:")) {
+                            frames.incrementAndGet();
+                            if (++mine == EVENTS) {
+                                delivered.countDown();
+                                return;
+                            }
+                        }
+                    }
+                }, readers);
+            }
+            long deadline = System.currentTimeMillis() + 20_000;
+            while (changeFeedService.getSubscriberCount() < baseline + SUBSCRIBERS + 1
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+
+            ProductDto product = TestData.product(productService, "10.00", 5);
+            for (int i = 1; i < EVENTS; i++) {
+                productService.updateProduct(product.getProductId(), ProductDto.builder()
+                        .name(product.getName())
+                        .category(product.getCategory())
+                        .price(product.getPrice())
+                        .stockQty(5 + i)
+                        .build());
+            }
+
+            assertTrue(delivered.await(30, TimeUnit.SECONDS),
+                    "frames received: " + frames.get() + " of " + SUBSCRIBERS * EVENTS);
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.csis231.api.service;
+
+import com.csis231.api.PostgresIntegrationTest;
+import com.csis231.api.TestData;
+import com.csis231.api.dto.ChangesDto;
+import com.csis231.api.dto.OrderDto;
+import com.csis231.api.dto.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeLogRetentionTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ChangeLogService changeLogService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void tokenOlderThanPurgedRowsGetsFullSnapshot() {
+        String token = productService.getChanges(null).getToken();
+        ProductDto product = TestData.product(productService, "10.00", 5);
+
+        ChangesDto<ProductDto> delta = productService.getChanges(token);
+        assertFalse(delta.isFull());
+        assertEquals(1, delta.getUpserted().stream()
+                .filter(p -> p.getProductId().equals(product.getProductId())).count());
+
+        // Age the rows past the retention period and purge them
+        jdbcTemplate.update("update change_log set changed_at = now() - interval '30 days' where tx_id >= ?",
+                Long.parseLong(token));
+        assertTrue(changeLogService.purge() > 0);
+
+        ChangesDto<ProductDto> stale = productService.getChanges(token);
+        assertTrue(stale.isFull());
+        assertTrue(stale.getUpserted().stream().anyMatch(p -> p.getProductId().equals(product.getProductId())));
+
+        ChangesDto<ProductDto> fresh = productService.getChanges(stale.getToken());
+        assertFalse(fresh.isFull());
+    }
+
+    @Test
+    void ordersAskForResyncInsteadOfFullSnapshot() {
+        ChangesDto<OrderDto> initial = orderService.getChanges(null);
+        assertTrue(initial.isResync());
+        assertFalse(initial.isFull());
+        assertTrue(initial.getUpserted().isEmpty());
+
+        ChangesDto<OrderDto> delta = orderService.getChanges(initial.getToken());
+        assertFalse(delta.isResync());
+    }
+}
@@ -0,0 +1,49 @@
+package com.csis231.api.service;
+
+import com.csis231.api.PostgresIntegrationTest;
+import com.csis231.api.TestData;
+import com.csis231.api.dto.ProductDto;
+import com.csis231.api.dto.SalesReportDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DailySalesServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private DailySalesService dailySalesService;
+    @Autowired
+    private CheckoutService checkoutService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void orderPlacedAtMidnightAfterLastDayIsNotCounted() {
+        ProductDto product = TestData.product(productService, "10.00", 10);
+        Long customerId = TestData.customer(customerService).getCustomerId();
+        // Long past, so these orders never top another test's newest-first page
+        LocalDate day = LocalDate.of(2001, 3, 1);
+
+        placeFulfilledOrderAt(customerId, product, day.atTime(23, 59, 59, 999_999_000));
+        placeFulfilledOrderAt(customerId, product, day.plusDays(1).atStartOfDay());
+
+        SalesReportDto report = dailySalesService.getReport(day, day, SalesReportDto.GroupBy.DAY);
+        assertEquals(1, report.getTotalOrders());
+        assertEquals(day.plusDays(1).atStartOfDay(), report.getTo());
+    }
+
+    private void placeFulfilledOrderAt(Long customerId, ProductDto product, LocalDateTime placedAt) {
+        Long orderId = checkoutService.checkout(TestData.checkout(customerId, true, product.getProductId(), 1))
+                .getOrderId();
+        jdbcTemplate.update("update orders set placed_at = ? where order_id = ?", placedAt, orderId);
+    }
+}
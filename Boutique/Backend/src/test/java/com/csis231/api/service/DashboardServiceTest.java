@@ -0,0 +1,52 @@
+package com.csis231.api.service;
+
+import com.csis231.api.PostgresIntegrationTest;
+import com.csis231.api.TestData;
+import com.csis231.api.dto.DashboardSummaryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DashboardServiceTest extends PostgresIntegrationTest {
+
+    @Autowired private DashboardService dashboardService;
+    @Autowired private ProductService productService;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reloadBetweenCommitAndUpdateCountsTheChangeOnce() throws Exception {
+        dashboardService.reload();
+        AtomicReference<CompletableFuture<Void>> reload = new AtomicReference<>();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Registered first, so it runs after the commit but before the dashboard applies the change
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload.set(CompletableFuture.runAsync(dashboardService::reload));
+                    assertThrows(TimeoutException.class, () -> reload.get().get(300, TimeUnit.MILLISECONDS),
+                            "a reload must wait until the committed change is applied");
+                }
+            });
+            TestData.product(productService, "7.00", 100);
+        });
+        reload.get().get(10, TimeUnit.SECONDS);
+
+        DashboardSummaryDto live = dashboardService.getSummary();
+        dashboardService.reload();
+        DashboardSummaryDto recounted = dashboardService.getSummary();
+
+        assertEquals(0, recounted.getInventoryValue().compareTo(live.getInventoryValue()));
+    }
+}
@@ -0,0 +1,154 @@
+package com.csis231.api.service;
+
+import com.csis231.api.PostgresIntegrationTest;
+import com.csis231.api.TestData;
+import com.csis231.api.dto.CustomerDto;
+import com.csis231.api.dto.ProductDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderExportServiceTest extends PostgresIntegrationTest {
+
+    private static final int ORDERS = 600;
+
+    @Autowired
+    private OrderExportService orderExportService;
+    @Autowired
+    private CheckoutService checkoutService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeAll
+    void placeOrders() throws InterruptedException {
+        CustomerDto customer = TestData.customer(customerService);
+        ProductDto plain = TestData.product(productService, "10.00", 1_000_000);
+        ProductDto quoted = productService.createProduct(ProductDto.builder()
+                .name(TestData.unique("bag, \"quoted\""))
+                .category(plain.getCategory())
+                .price(plain.getPrice())
+                .stockQty(1_000_000)
+                .build());
+
+        from = LocalDateTime.now();
+        Thread.sleep(5);
+        for (int i = 0; i < ORDERS; i++) {
+            Object[] lines = i % 2 == 0
+                    ? new Object[]{plain.getProductId(), 1 + i % 3, quoted.getProductId(), 2}
+                    : new Object[]{plain.getProductId(), 1 + i % 3};
+            orderIds.add(checkoutService.checkout(TestData.checkout(customer.getCustomerId(), false, lines)).getOrderId());
+        }
+        Thread.sleep(5);
+        to = LocalDateTime.now();
+    }
+
+    @Test
+    void ndjsonHasEveryOrderOnceInPlacementOrder() throws Exception {
+        String body = export("ndjson");
+
+        String[] lines = body.split("\n");
+        assertEquals(ORDERS, lines.length);
+        List<Long> exported = new ArrayList<>();
+        LocalDateTime previous = LocalDateTime.MIN;
+        for (String line : lines) {
+            JsonNode order = objectMapper.readTree(line);
+            LocalDateTime placedAt = objectMapper.treeToValue(order.get("placedAt"), LocalDateTime.class);
+            assertTrue(!placedAt.isBefore(previous), "orders out of order at " + line);
+            previous = placedAt;
+            exported.add(order.get("orderId").asLong());
+            assertEquals(exported.size() % 2 == 1 ? 2 : 1, order.get("orderItems").size());
+        }
+        assertEquals(orderIds, exported);
+    }
+
+    @Test
+    void csvHasOneLinePerItemWithQuotedNames() throws Exception {
+        String[] lines = export("csv").split("\n");
+
+        assertEquals(1 + ORDERS + ORDERS / 2, lines.length);
+        assertTrue(lines[0].startsWith("orderId,placedAt,status"));
+        assertTrue(lines[1].contains("\"bag, \"\"quoted\"\"") || lines[2].contains("\"bag, \"\"quoted\"\""),
+                lines[1] + "\n" + lines[2]);
+    }
+
+    @Test
+    void persistenceContextStaysSmallWhileStreaming() throws Exception {
+        int[] largest = {0};
+        OutputStream probe = new OutputStream() {
+            @Override
+            public void write(int b) {
+                sample();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                sample();
+            }
+
+            private void sample() {
+                int managed = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+                largest[0] = Math.max(largest[0], managed);
+            }
+        };
+
+        orderExportService.exportOrders(from, to, OrderExportService.Format.NDJSON, probe);
+
+        // Each order is detached once written; only the shared customer and a row or two remain
+        assertTrue(largest[0] > 0 && largest[0] < 20, "largest persistence context: " + largest[0]);
+    }
+
+    @Test
+    void rejectsBadRangeAndFormat() throws Exception {
+        MvcResult reversed = mockMvc.perform(get("/api/orders/export")
+                .param("from", to.toString()).param("to", from.toString())).andReturn();
+        mockMvc.perform(asyncDispatch(reversed))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_RANGE"));
+        MvcResult xml = mockMvc.perform(get("/api/orders/export")
+                .param("from", from.toString()).param("to", to.toString()).param("format", "xml")).andReturn();
+        mockMvc.perform(asyncDispatch(xml))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_FORMAT"));
+    }
+
+    private String export(String format) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/orders/export")
+                .param("from", from.toString()).param("to", to.toString()).param("format", format)).andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
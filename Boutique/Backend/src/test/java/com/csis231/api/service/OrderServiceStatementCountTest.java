@@ -0,0 +1,84 @@
+package com.csis231.api.service;
+
+import com.csis231.api.PostgresIntegrationTest;
+import com.csis231.api.TestData;
+import com.csis231.api.dto.CustomerDto;
+import com.csis231.api.dto.OrderDto;
+import com.csis231.api.dto.OrderPageDto;
+import com.csis231.api.dto.ProductDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Guards the fetch-planned order reads against N+1 queries creeping back in. */
+class OrderServiceStatementCountTest extends PostgresIntegrationTest {
+
+    @Autowired private OrderService orderService;
+    @Autowired private OrderItemService orderItemService;
+    @Autowired private CustomerService customerService;
+    @Autowired private ProductService productService;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void createOrders() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ProductDto bag = TestData.product(productService, "10.00", 1_000);
+        ProductDto belt = TestData.product(productService, "4.00", 1_000);
+        for (int c = 0; c < 4; c++) {
+            CustomerDto customer = TestData.customer(customerService);
+            for (int o = 0; o < 3; o++) {
+                TestData.pendingOrder(orderService, orderItemService, customer.getCustomerId(),
+                        bag.getProductId(), 2, belt.getProductId(), 1);
+            }
+        }
+    }
+
+    @Test
+    void getAllOrdersIsOneStatement() {
+        statistics.clear();
+        List<OrderDto> orders = orderService.getAllOrders();
+
+        assertTrue(orders.size() >= 12);
+        assertTrue(orders.stream().allMatch(o -> o.getCustomerName() != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getOrderByIdIsOneStatement() {
+        Long id = orderService.getOrdersPage(null, 1, null, null, null, null, null, null)
+                .getOrders().get(0).getOrderId();
+
+        statistics.clear();
+        OrderDto order = orderService.getOrderById(id);
+
+        assertEquals(2, order.getOrderItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pageCostDoesNotGrowWithPageSize() {
+        statistics.clear();
+        OrderPageDto small = orderService.getOrdersPage(null, 2, null, null, null, null, null, null);
+        long smallCount = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        OrderPageDto large = orderService.getOrdersPage(null, 12, null, null, null, null, null, null);
+        long largeCount = statistics.getPrepareStatementCount();
+
+        assertEquals(2, small.getOrders().size());
+        assertEquals(12, large.getOrders().size());
+        assertTrue(large.getOrders().stream().allMatch(o -> o.getCustomerName() != null));
+        assertEquals(1, smallCount);
+        assertEquals(smallCount, largeCount);
+    }
+}
@@ -0,0 +1,90 @@
+package com.csis231.api.service;
+
+import com.csis231.api.PostgresIntegrationTest;
+import com.csis231.api.TestData;
+import com.csis231.api.dto.OrderDto;
+import com.csis231.api.dto.OrderItemDto;
+import com.csis231.api.dto.ProductDto;
+import com.csis231.api.entity.Order;
+import com.csis231.api.repository.OrderRepository;
+import com.csis231.api.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderStatusLockTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void itemAddedWhileOrderIsBeingFulfilledIsRejected() throws Exception {
+        ProductDto product = TestData.product(productService, "10.00", 100);
+        Long customerId = TestData.customer(customerService).getCustomerId();
+        OrderDto order = TestData.pendingOrder(orderService, orderItemService, customerId, product.getProductId(), 1);
+        Long orderId = order.getOrderId();
+
+        CountDownLatch closed = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Fulfils the order and holds the transaction open before committing
+            Future<?> closing = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(s -> {
+                orderService.closeOrder(orderId);
+                closed.countDown();
+                await(commit);
+            }));
+            closed.await(10, TimeUnit.SECONDS);
+
+            Future<OrderItemDto> adding = executor.submit(() -> orderItemService.addOrderItem(orderId,
+                    OrderItemDto.builder().orderId(orderId).productId(product.getProductId()).quantity(2).build()));
+            assertThrows(TimeoutException.class, () -> adding.get(300, TimeUnit.MILLISECONDS),
+                    "the item write must wait for the order row");
+
+            commit.countDown();
+            closing.get(10, TimeUnit.SECONDS);
+            ExecutionException rejected = assertThrows(ExecutionException.class, () -> adding.get(10, TimeUnit.SECONDS));
+            assertEquals("Items can only be added to pending orders", rejected.getCause().getMessage());
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+
+        Order stored = orderRepository.findById(orderId).orElseThrow();
+        assertEquals(Order.OrderStatus.FULFILLED, stored.getStatus());
+        assertEquals(1, stored.getUnitCount());
+        assertEquals(99, productRepository.findStockQtyById(product.getProductId()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.csis231.api.service;
+
+import com.csis231.api.PostgresIntegrationTest;
+import com.csis231.api.TestData;
+import com.csis231.api.dto.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductCatalogCacheTest extends PostgresIntegrationTest {
+
+    @Autowired private ProductService productService;
+
+    @Test
+    void changingAReturnedProductLeavesTheCacheIntact() {
+        ProductDto created = TestData.product(productService, "12.00", 9);
+        String name = created.getName();
+
+        ProductDto read = productService.getProductById(created.getProductId());
+        read.setName("changed by a caller");
+        read.setStockQty(0);
+        productService.getAllProducts().forEach(product -> product.setStockQty(-1));
+        productService.getProductsByCategory(created.getCategory()).forEach(product -> product.setName("x"));
+
+        ProductDto again = productService.getProductById(created.getProductId());
+        assertEquals(name, again.getName());
+        assertEquals(9, again.getStockQty());
+        assertEquals(9, productService.getAvailableProducts().stream()
+                .filter(product -> product.getProductId().equals(created.getProductId()))
+                .findFirst().orElseThrow().getStockQty());
+    }
+}
@@ -0,0 +1,156 @@
+package com.csis231.api.service;
+
+import com.csis231.api.PostgresIntegrationTest;
+import com.csis231.api.TestData;
+import com.csis231.api.dto.ProductImportResultDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProductImportServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void insertsThenUpdatesByName() throws IOException {
+        String prefix = TestData.unique("import") + "-";
+
+        ProductImportResultDto inserted = productImportService.importProducts(csv(prefix, 2500, 5), ProductImportService.CSV);
+        assertEquals(2500, inserted.getInserted());
+        assertEquals(0, inserted.getFailed());
+
+        ProductImportResultDto updated = productImportService.importProducts(csv(prefix, 2500, 7), ProductImportService.CSV);
+        assertEquals(0, updated.getInserted());
+        assertEquals(2500, updated.getUpdated());
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "select stock_qty from products where name = ?", Integer.class, prefix + "123, deluxe"));
+    }
+
+    @Test
+    void reportsRejectedRowsByLine() throws Exception {
+        String name = TestData.unique("import");
+        String body = "{\"name\":\"" + name + "\",\"category\":\"jewelry_earrings\",\"price\":12.5,\"stockQty\":3}\n"
+                + "{\"name\":\"x\",\"category\":\"SHOES\",\"price\":1,\"stockQty\":1}\n"
+                + "not json\n\n"
+                + "{\"name\":\"" + name + "\",\"category\":\"JEWELRY_EARRINGS\",\"price\":\"0\",\"stockQty\":3}\n";
+
+        mockMvc.perform(post("/api/products/import").contentType(ProductImportService.NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.errors[1].line").value(3))
+                .andExpect(jsonPath("$.errors[2].line").value(5));
+        mockMvc.perform(post("/api/products/import").contentType(ProductImportService.CSV).content("foo,bar\n1,2\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void slowUploadDoesNotHoldUpOtherImports() throws Exception {
+        String slowPrefix = TestData.unique("slow") + "-";
+        String fastPrefix = TestData.unique("fast") + "-";
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream stalled = new SequenceInputStream(csv(slowPrefix, 1500, 1), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return -1;
+            }
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ProductImportResultDto> slow = executor.submit(
+                    () -> productImportService.importProducts(stalled, ProductImportService.CSV));
+
+            ProductImportResultDto fast = CompletableFuture
+                    .supplyAsync(() -> importUnchecked(csv(fastPrefix, 100, 1)))
+                    .get(30, TimeUnit.SECONDS);
+            assertEquals(100, fast.getInserted());
+
+            release.countDown();
+            assertEquals(1500, slow.get(30, TimeUnit.SECONDS).getInserted());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentImportsInsertEachNewNameOnce() throws Exception {
+        String prefix = TestData.unique("shared") + "-";
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] imports = new Future<?>[4];
+            for (int i = 0; i < imports.length; i++) {
+                imports[i] = executor.submit(() -> importUnchecked(csv(prefix, 2000, 3)));
+            }
+            for (Future<?> future : imports) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2000, jdbcTemplate.queryForObject(
+                "select count(*) from products where name like ?", Integer.class, prefix + "%"));
+        assertEquals(2000, jdbcTemplate.queryForObject(
+                "select count(distinct name) from products where name like ?", Integer.class, prefix + "%"));
+    }
+
+    private ProductImportResultDto importUnchecked(InputStream body) {
+        try {
+            return productImportService.importProducts(body, ProductImportService.CSV);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** A CSV feed generated line by line, with a quoted comma in every name. */
+    private static InputStream csv(String prefix, int rows, int stock) {
+        return new SequenceInputStream(new Enumeration<>() {
+            private int next = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < rows;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String line = next < 0
+                        ? "name,category,price,stock_qty\n"
+                        : "\"" + prefix + next + ", deluxe\",HANDBAGS," + (next % 500 + 1) + ".99," + stock + "\n";
+                next++;
+                return new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.csis231.api.service;
+
+import com.csis231.api.dto.SalesReportDto;
+import com.csis231.api.entity.ProductCategory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SalesColumnStoreTest {
+
+    @Test
+    void orderAppendedTwiceIsCountedOnce() {
+        SalesColumnStore store = new SalesColumnStore();
+        List<SalesColumnStore.Line> lines = List.of(
+                new SalesColumnStore.Line(7, ProductCategory.HANDBAGS, 2, 2000),
+                new SalesColumnStore.Line(8, ProductCategory.HANDBAGS, 1, 500));
+
+        store.append(1, 100, lines);
+        // The startup catch-up and the fulfilment event can both deliver the same order
+        store.append(1, 100, lines);
+
+        assertTrue(store.containsOrder(1));
+        assertFalse(store.containsOrder(2));
+        assertEquals(2, store.size());
+        SalesColumnStore.Result result = store.aggregate(100, 100, null, null, SalesReportDto.GroupBy.DAY);
+        assertEquals(1, result.orders());
+        assertEquals(3, result.quantities()[0]);
+        assertEquals(2500, result.amountCents()[0]);
+    }
+}
@@ -0,0 +1,42 @@
+package com.csis231.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void countsBracketTheTruthOnASkewedStream() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(50);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 200_000; i++) {
+            long item = (long) Math.floor(Math.pow(random.nextDouble(), 3) * 5000);
+            long weight = 1 + random.nextInt(3);
+            sketch.offer(item, weight);
+            exact.merge(item, weight, Long::sum);
+        }
+
+        assertTrue(sketch.minCount() <= sketch.total() / sketch.capacity());
+        Set<Long> tracked = new HashSet<>();
+        for (SpaceSavingSketch.Entry entry : sketch.entries()) {
+            long truth = exact.getOrDefault(entry.item(), 0L);
+            assertTrue(entry.count() - entry.error() <= truth && truth <= entry.count(), entry + " true " + truth);
+            assertTrue(entry.error() <= sketch.minCount());
+            tracked.add(entry.item());
+        }
+        // Anything heavier than the smallest tracked count must be tracked
+        exact.forEach((item, units) -> {
+            if (units > sketch.minCount()) {
+                assertTrue(tracked.contains(item), "heavy item " + item + " with " + units + " units not tracked");
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.csis231.api.service;
+
+import com.csis231.api.PostgresIntegrationTest;
+import com.csis231.api.TestData;
+import com.csis231.api.dto.CustomerDto;
+import com.csis231.api.dto.OrderItemDto;
+import com.csis231.api.dto.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Many buyers racing for the last units must never take stock below zero. */
+class StockReservationConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired private CheckoutService checkoutService;
+    @Autowired private OrderService orderService;
+    @Autowired private OrderItemService orderItemService;
+    @Autowired private CustomerService customerService;
+    @Autowired private ProductService productService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentCheckoutsSellExactlyTheAvailableStock() throws Exception {
+        ProductDto scarce = TestData.product(productService, "20.00", 50);
+        ProductDto plentiful = TestData.product(productService, "1.00", 10_000);
+        CustomerDto customer = TestData.customer(customerService);
+
+        List<Callable<Void>> attempts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            attempts.add(() -> {
+                checkoutService.checkout(TestData.checkout(customer.getCustomerId(), true,
+                        plentiful.getProductId(), 1, scarce.getProductId(), 1));
+                return null;
+            });
+        }
+        Outcome outcome = race(attempts, scarce.getProductId());
+
+        assertEquals(50, outcome.succeeded());
+        assertEquals(150, outcome.soldOut());
+        assertTrue(outcome.lowestStockSeen() >= 0);
+        assertEquals(0, stockOf(scarce.getProductId()));
+        // A failed checkout also gives back what it reserved on its other lines
+        assertEquals(10_000 - 50, stockOf(plentiful.getProductId()));
+        assertEquals(50, jdbcTemplate.queryForObject(
+                "select count(*) from orders where customer_id = ?", Integer.class, customer.getCustomerId()));
+    }
+
+    @Test
+    void concurrentItemAddsSellExactlyTheAvailableStock() throws Exception {
+        ProductDto scarce = TestData.product(productService, "20.00", 30);
+        CustomerDto customer = TestData.customer(customerService);
+
+        List<Callable<Void>> attempts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Long orderId = TestData.pendingOrder(orderService, orderItemService, customer.getCustomerId()).getOrderId();
+            attempts.add(() -> {
+                orderItemService.addOrderItem(orderId, OrderItemDto.builder()
+                        .orderId(orderId)
+                        .productId(scarce.getProductId())
+                        .quantity(1)
+                        .build());
+                return null;
+            });
+        }
+        Outcome outcome = race(attempts, scarce.getProductId());
+
+        assertEquals(30, outcome.succeeded());
+        assertEquals(70, outcome.soldOut());
+        assertTrue(outcome.lowestStockSeen() >= 0);
+        assertEquals(0, stockOf(scarce.getProductId()));
+        assertEquals(30, jdbcTemplate.queryForObject(
+                "select count(*) from order_items where product_id = ?", Integer.class, scarce.getProductId()));
+    }
+
+    private record Outcome(int succeeded, int soldOut, int lowestStockSeen) {}
+
+    /** Runs the attempts from many threads while watching the product's stock. */
+    private Outcome race(List<Callable<Void>> attempts, Long productId) throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        AtomicInteger lowest = new AtomicInteger(Integer.MAX_VALUE);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            Future<?> watcher = pool.submit(() -> {
+                while (running.get()) {
+                    lowest.accumulateAndGet(stockOf(productId), Math::min);
+                }
+            });
+            List<Future<?>> results = new ArrayList<>();
+            for (Callable<Void> attempt : attempts) {
+                results.add(pool.submit(() -> {
+                    try {
+                        attempt.call();
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        assertTrue(e.getMessage().startsWith("Insufficient stock"), e.getMessage());
+                        soldOut.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            running.set(false);
+            watcher.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Outcome(succeeded.get(), soldOut.get(), lowest.get());
+    }
+
+    private int stockOf(Long productId) {
+        return jdbcTemplate.queryForObject("select stock_qty from products where product_id = ?", Integer.class, productId);
+    }
+}
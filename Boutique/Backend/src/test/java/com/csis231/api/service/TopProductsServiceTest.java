@@ -0,0 +1,119 @@
+package com.csis231.api.service;
+
+import com.csis231.api.PostgresIntegrationTest;
+import com.csis231.api.TestData;
+import com.csis231.api.dto.OrderDto;
+import com.csis231.api.dto.TopProductsDto;
+import com.csis231.api.entity.Order;
+import com.csis231.api.event.OrderChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A small sketch, so the skewed sales below overflow it and the error bounds are exercised
+@TestPropertySource(properties = "boutique.top-products.capacity=8")
+class TopProductsServiceTest extends PostgresIntegrationTest {
+
+    private static final String EXACT_SQL = "select i.product_id, sum(i.quantity) from order_items i "
+            + "join orders o on o.order_id = i.order_id "
+            + "where o.o_status = 'FULFILLED' and o.placed_at >= current_date - 6 group by i.product_id";
+
+    @Autowired
+    private TopProductsService topProductsService;
+    @Autowired
+    private CheckoutService checkoutService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderItemService orderItemService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void reportedUnitsBracketTheExactSums() throws Exception {
+        Long customerId = TestData.customer(customerService).getCustomerId();
+        List<Long> products = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            products.add(TestData.product(productService, "1.00", 1_000_000).getProductId());
+        }
+        Random random = new Random(5);
+        for (int i = 0; i < 300; i++) {
+            int popular = (int) Math.floor(Math.pow(random.nextDouble(), 2) * 30);
+            int other = (popular + 1 + random.nextInt(29)) % 30;
+            checkoutService.checkout(TestData.checkout(customerId, i % 4 != 0,
+                    products.get(popular), 1 + random.nextInt(5), products.get(other), 1));
+        }
+        // Fulfilled through the item endpoints rather than checkout
+        OrderDto order = TestData.pendingOrder(orderService, orderItemService, customerId, products.get(29), 7);
+        orderService.closeOrder(order.getOrderId());
+
+        Map<Long, Long> exact = new HashMap<>();
+        jdbcTemplate.query(EXACT_SQL, rs -> {
+            exact.put(rs.getLong(1), rs.getLong(2));
+        });
+        TopProductsDto top = topProductsService.getTopProducts(7, 5);
+
+        assertEquals(exact.values().stream().mapToLong(Long::longValue).sum(), top.getTotalUnits());
+        assertTrue(top.getMaxError() <= top.getTotalUnits() / 8);
+        assertEquals(5, top.getProducts().size());
+        for (TopProductsDto.EntryDto entry : top.getProducts()) {
+            long truth = exact.getOrDefault(entry.getProductId(), 0L);
+            assertTrue(entry.getMinUnits() <= truth && truth <= entry.getUnits(), entry + " true " + truth);
+            assertNotNull(entry.getProductName());
+        }
+
+        // No product that certainly outsold the fifth entry may be missing
+        Set<Long> reported = new HashSet<>();
+        top.getProducts().forEach(entry -> reported.add(entry.getProductId()));
+        long fifth = top.getProducts().get(4).getUnits();
+        exact.forEach((productId, units) -> {
+            if (units > fifth) {
+                assertTrue(reported.contains(productId), "missing product " + productId + " with " + units + " units");
+            }
+        });
+    }
+
+    @Test
+    void lateFulfilmentEventForARecordedOrderIsIgnored() {
+        Long customerId = TestData.customer(customerService).getCustomerId();
+        Long productId = TestData.product(productService, "1.00", 100).getProductId();
+        OrderDto order = checkoutService.checkout(TestData.checkout(customerId, true, productId, 3));
+        long before = topProductsService.getTopProducts(7, 5).getTotalUnits();
+
+        // As if the after-commit listener ran once more, e.g. after the startup load had read the order
+        topProductsService.onOrderChanged(new OrderChangedEvent(order.getOrderId(),
+                Order.OrderStatus.PENDING, Order.OrderStatus.FULFILLED));
+
+        assertEquals(before, topProductsService.getTopProducts(7, 5).getTotalUnits());
+    }
+
+    @Test
+    void rejectsWindowsBeyondTheRetainedDays() throws Exception {
+        mockMvc.perform(get("/api/reports/top-products").param("days", "36"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_WINDOW"));
+    }
+}
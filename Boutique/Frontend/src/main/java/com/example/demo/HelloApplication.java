@@ -13,6 +13,8 @@ public class HelloApplication extends Application {
         stage.setMinHeight(800);
 
         Launcher.go("login.fxml", "Pub Management Login");
+        // Built while the user signs in
+        Launcher.preloadScreens();
     }
 
     public static void main(String[] args) {
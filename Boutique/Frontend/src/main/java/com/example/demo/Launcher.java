@@ -1,5 +1,8 @@
 package com.example.demo;
 
+import com.example.demo.api.EventStreamClient;
+import com.example.demo.controllers.Screen;
+import com.example.demo.util.FxRequests;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -7,7 +10,11 @@ import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
+import java.io.IOException;
 import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 
@@ -19,6 +26,22 @@ public final class Launcher {
     private static final String STYLES_PATH = "/com/example/demo/styles.css";
     private static final String ICON_PATH   = "/com/example/demo/icon.png"; // optional
 
+    // Screens loaded ahead of time after startup and after every logout
+    private static final List<String> MAIN_SCREENS = List.of(
+            "dashboard.fxml", "staff-dashboard.fxml", "orders.fxml", "orderStaff.fxml",
+            "products.fxml", "customers.fxml", "reports.fxml");
+
+    /**
+     * Screens whose controller is a {@link Screen}, kept after their first load so coming back
+     * costs a root swap and an onShow() instead of parsing the FXML and building every control
+     * again. Only touched on the FX thread.
+     */
+    private static final Map<String, Loaded> SCREENS = new HashMap<>();
+    // Bumped by resetScreens() so a preload started before it does not fill the new cache
+    private static int screensGeneration;
+
+    private record Loaded(Parent root, Object controller) {}
+
     private Launcher() {}
 
     public static void init(Stage primary) {
@@ -36,13 +59,18 @@ public final class Launcher {
             try {
                 ensureInitialized();
 
-                URL url = HelloApplication.class.getResource(FXML_PREFIX + fxmlFileName);
-                if (url == null) {
-                    throw new IllegalStateException("FXML not found: " + FXML_PREFIX + fxmlFileName);
-                }
+                // The new screen registers its own listener while loading or in onShow()
+                EventStreamClient.clearListener();
+                FxRequests.closeAll();
 
-                FXMLLoader loader = new FXMLLoader(url);
-                Parent root = loader.load();
+                Loaded screen = SCREENS.get(fxmlFileName);
+                if (screen == null) {
+                    screen = load(fxmlFileName);
+                    if (screen.controller() instanceof Screen) {
+                        SCREENS.put(fxmlFileName, screen);
+                    }
+                }
+                Parent root = screen.root();
 
                 if (scene == null) {
                     scene = new Scene(root);
@@ -57,6 +85,10 @@ public final class Launcher {
                 }
 
                 if (!stage.isShowing()) stage.show();
+
+                if (screen.controller() instanceof Screen shown) {
+                    shown.onShow();
+                }
             } catch (Exception ex) {
                 throw new RuntimeException("Failed to load " + fxmlFileName + ": " + ex.getMessage(), ex);
             }
@@ -65,6 +97,54 @@ public final class Launcher {
         if (Platform.isFxApplicationThread()) task.run(); else Platform.runLater(task);
     }
 
+    /**
+     * Loads the main screens on a background thread so the first visit to each is as fast as
+     * the later ones. A screen the user reaches before its preload finishes is loaded on the
+     * spot and the preloaded copy is dropped.
+     */
+    public static void preloadScreens() {
+        int generation = screensGeneration;
+        Thread preloader = new Thread(() -> {
+            for (String fxmlFileName : MAIN_SCREENS) {
+                try {
+                    Loaded screen = load(fxmlFileName);
+                    if (screen.controller() instanceof Screen) {
+                        Platform.runLater(() -> {
+                            if (generation == screensGeneration) {
+                                SCREENS.putIfAbsent(fxmlFileName, screen);
+                            }
+                        });
+                    }
+                } catch (Exception ex) {
+                    // Not fatal: the screen is loaded when it is first opened
+                    System.err.println("Preloading " + fxmlFileName + " failed: " + ex.getMessage());
+                }
+            }
+        }, "screen-preload");
+        preloader.setDaemon(true);
+        preloader.start();
+    }
+
+    /** Forgets every kept screen, with whatever was typed into it, and preloads fresh ones. */
+    public static void resetScreens() {
+        Runnable task = () -> {
+            screensGeneration++;
+            SCREENS.clear();
+            preloadScreens();
+        };
+        if (Platform.isFxApplicationThread()) task.run(); else Platform.runLater(task);
+    }
+
+    private static Loaded load(String fxmlFileName) throws IOException {
+        URL url = HelloApplication.class.getResource(FXML_PREFIX + fxmlFileName);
+        if (url == null) {
+            throw new IllegalStateException("FXML not found: " + FXML_PREFIX + fxmlFileName);
+        }
+        FXMLLoader loader = new FXMLLoader(url);
+        Parent root = loader.load();
+        return new Loaded(root, loader.getController());
+    }
+
     private static void ensureInitialized() {
         if (stage == null) {
             throw new IllegalStateException("Launcher.init(stage) must be called before Launcher.go(...)");
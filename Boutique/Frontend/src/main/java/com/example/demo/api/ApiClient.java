@@ -1,88 +1,245 @@
 package com.example.demo.api;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.zip.GZIPInputStream;
 
+/**
+ * Non-blocking HTTP for the API classes. Every call returns at once with a future that
+ * completes on one of a few background threads, which also parse the JSON, so nothing here
+ * ever waits on the FX thread. Screens hand the futures to FxRequests to get the results back
+ * on the FX thread. Cancelling a returned future abandons the exchange.
+ *
+ * Requests go out over HTTP/2 where the server accepts it (h2c upgrade on plain http), so the
+ * calls share one multiplexed connection, and ask for gzip. Bodies are not buffered: parsers
+ * read the decompressed stream as it arrives.
+ */
 public final class ApiClient {
     private ApiClient() {}
 
     private static final int TIMEOUT_SEC = 10;
     private static final int RETRIES = 1;
+    private static final int THREADS = 4;
 
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, r -> {
+        Thread t = new Thread(r, "api-client-" + THREAD_IDS.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Parsers block on the body stream on EXECUTOR threads, so the client keeps its own
+    // threads for feeding those streams
     private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
             .connectTimeout(Duration.ofSeconds(TIMEOUT_SEC))
             .build();
 
-    private static String baseUrl() {
+    @FunctionalInterface
+    public interface BodyParser<T> {
+        /** Reads the decompressed response body; the stream is closed afterwards. */
+        T parse(InputStream body) throws Exception;
+    }
+
+    static String baseUrl() {
         String v = ClientProps.getOr("api.baseUrl", null);
         if (v == null) v = ClientProps.getOr("backend.baseUrl", null);
         if (v == null) v = ClientProps.getOr("baseUrl", "http://localhost:8080");
         return v.endsWith("/") ? v.substring(0, v.length() - 1) : v;
     }
 
-    public static HttpResponse<String> get(String path) throws Exception {
-        String url = baseUrl() + path;
-        HttpRequest req = HttpRequest.newBuilder()
+    /** GET that fails on a non-2xx answer and otherwise parses the body. */
+    public static <T> CompletableFuture<T> getJson(String path, BodyParser<T> parser) {
+        return then(sendWithRetry(getRequest(baseUrl() + path).build()), res -> parse(res, parser));
+    }
+
+    private static HttpRequest.Builder getRequest(String url) {
+        return HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .timeout(Duration.ofSeconds(TIMEOUT_SEC))
                 .header("Accept", "application/json")
-                .GET()
-                .build();
-        return sendWithRetry(url, req);
+                .header("Accept-Encoding", "gzip")
+                .GET();
     }
 
+    @FunctionalInterface
+    public interface BodyWriter {
+        byte[] write() throws Exception;
+    }
 
-    
+    @FunctionalInterface
+    public interface Step<S, T> {
+        T apply(S value) throws Exception;
+    }
 
-    public static HttpResponse<String> post(String path, String json) throws Exception {
-        String url = baseUrl() + path;
-        HttpRequest req = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(Duration.ofSeconds(TIMEOUT_SEC))
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(json))
-                .build();
-        return sendWithRetry(url, req);
+    public static CompletableFuture<HttpResponse<InputStream>> post(String path, BodyWriter json) {
+        return send(path, json, (builder, body) -> builder.POST(HttpRequest.BodyPublishers.ofByteArray(body)));
     }
 
-    public static HttpResponse<String> put(String path, String json) throws Exception {
-        String url = baseUrl() + path;
-        HttpRequest req = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(Duration.ofSeconds(TIMEOUT_SEC))
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .PUT(HttpRequest.BodyPublishers.ofString(json))
-                .build();
-        return sendWithRetry(url, req);
+    public static CompletableFuture<HttpResponse<InputStream>> put(String path, BodyWriter json) {
+        return send(path, json, (builder, body) -> builder.PUT(HttpRequest.BodyPublishers.ofByteArray(body)));
     }
 
-    public static HttpResponse<String> delete(String path) throws Exception {
-        String url = baseUrl() + path;
+    public static CompletableFuture<HttpResponse<InputStream>> delete(String path) {
         HttpRequest req = HttpRequest.newBuilder()
-                .uri(URI.create(url))
+                .uri(URI.create(baseUrl() + path))
                 .timeout(Duration.ofSeconds(TIMEOUT_SEC))
                 .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
                 .DELETE()
                 .build();
-        return sendWithRetry(url, req);
+        return sendWithRetry(req);
     }
 
-    private static HttpResponse<String> sendWithRetry(String url, HttpRequest req) throws Exception {
+    /** POST a JSON body, fail on a non-2xx answer and parse the reply. */
+    public static <T> CompletableFuture<T> postJson(String path, BodyWriter json, BodyParser<T> parser) {
+        return then(post(path, json), res -> parse(res, parser));
+    }
+
+    /** PUT a JSON body, fail on a non-2xx answer and parse the reply. */
+    public static <T> CompletableFuture<T> putJson(String path, BodyWriter json, BodyParser<T> parser) {
+        return then(put(path, json), res -> parse(res, parser));
+    }
+
+    public static CompletableFuture<Void> deleteOk(String path) {
+        return then(delete(path), res -> {
+            checkStatus(res);
+            res.body().close();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code step} on the API executor once {@code source} succeeds. Cancelling the
+     * returned future also cancels {@code source}, which aborts an exchange still in flight.
+     */
+    public static <S, T> CompletableFuture<T> then(CompletableFuture<S> source, Step<S, T> step) {
+        CompletableFuture<T> result = source.thenApplyAsync(value -> {
+            try {
+                return step.apply(value);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+        cancelWith(result, source);
+        return result;
+    }
+
+    /**
+     * Fails with a TimeoutException if {@code source} has not finished within {@code timeout}.
+     * A timed-out or cancelled result abandons the exchange behind {@code source}.
+     */
+    public static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> source, Duration timeout) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        source.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((value, error) -> {
+            if (!source.isDone()) {
+                source.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static CompletableFuture<HttpResponse<InputStream>> send(
+            String path, BodyWriter json, BiFunction<HttpRequest.Builder, byte[], HttpRequest.Builder> method) {
+        byte[] body;
         try {
-            return CLIENT.send(req, HttpResponse.BodyHandlers.ofString());
+            body = json.write();
         } catch (Exception e) {
-            // For connection/timeout errors, retry once quickly
-            if (RETRIES > 0 && (e instanceof java.net.ConnectException || 
-                e instanceof java.net.http.HttpTimeoutException)) {
-                Thread.sleep(100L);
-                return CLIENT.send(req, HttpResponse.BodyHandlers.ofString());
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl() + path))
+                .timeout(Duration.ofSeconds(TIMEOUT_SEC))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip");
+        return sendWithRetry(method.apply(builder, body).build());
+    }
+
+    private static void cancelWith(CompletableFuture<?> downstream, CompletableFuture<?> upstream) {
+        downstream.whenComplete((value, error) -> {
+            if (downstream.isCancelled()) {
+                upstream.cancel(true);
             }
-            throw e;
+        });
+    }
+
+    static void checkStatus(HttpResponse<InputStream> res) throws IOException {
+        if (res.statusCode() / 100 != 2) {
+            String body = text(res);
+            throw new RuntimeException("HTTP " + res.statusCode() + " - "
+                    + (body.isBlank() ? "<empty body>" : body));
         }
     }
+
+    /** Fails on a non-2xx answer, otherwise hands the decompressed body to {@code parser}. */
+    private static <T> T parse(HttpResponse<InputStream> res, BodyParser<T> parser) throws Exception {
+        checkStatus(res);
+        try (InputStream body = bodyOf(res)) {
+            return parser.parse(body);
+        }
+    }
+
+    /** The whole body as text, for error messages and other small answers. */
+    public static String text(HttpResponse<InputStream> res) throws IOException {
+        try (InputStream body = bodyOf(res)) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static InputStream bodyOf(HttpResponse<InputStream> res) throws IOException {
+        InputStream body = res.body();
+        boolean gzip = res.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent();
+        // An empty answer (e.g. 204) carries no gzip header to read
+        if (!gzip || res.statusCode() == 204) {
+            return body;
+        }
+        return new GZIPInputStream(body);
+    }
+
+    private static CompletableFuture<HttpResponse<InputStream>> sendWithRetry(HttpRequest req) {
+        CompletableFuture<HttpResponse<InputStream>> first = CLIENT.sendAsync(req, HttpResponse.BodyHandlers.ofInputStream());
+        if (RETRIES == 0) {
+            return first;
+        }
+        // For connection/timeout errors, retry once quickly
+        CompletableFuture<HttpResponse<InputStream>> result = first.handle((res, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(res);
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof ConnectException || cause instanceof HttpTimeoutException) {
+                return CompletableFuture.supplyAsync(() -> req, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS, EXECUTOR))
+                        .thenCompose(r -> CLIENT.sendAsync(r, HttpResponse.BodyHandlers.ofInputStream()));
+            }
+            return CompletableFuture.<HttpResponse<InputStream>>failedFuture(cause);
+        }).thenCompose(f -> f);
+        cancelWith(result, first);
+        return result;
+    }
 }
@@ -1,59 +1,75 @@
 package com.example.demo.api;
 
+import com.example.demo.model.ChangesDto;
 import com.example.demo.model.CustomerDto;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.net.http.HttpResponse;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public final class CustomerApi {
     private CustomerApi() {}
     
-    private static final ObjectMapper M = new ObjectMapper();
+    private static final ApiClient.BodyParser<CustomerDto> CUSTOMER = Json.parser(CustomerDto.class);
+    private static final ApiClient.BodyParser<ChangesDto<CustomerDto>> CUSTOMER_CHANGES = Json.parser(new TypeReference<>() {});
+
+    // Customers rarely change and every change is announced on the event stream
+    private static final ReferenceCache<CustomerDto> CACHE =
+            new ReferenceCache<>("CUSTOMER", Duration.ofMinutes(10), CustomerApi::fetchChanges, CustomerDto::getCustomerId);
     
-    public static List<CustomerDto> getAllCustomers() throws Exception {
-        HttpResponse<String> res = ApiClient.get("/api/customers");
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), new TypeReference<List<CustomerDto>>() {});
+    /** From the shared copy; downloads only on first use. */
+    public static CompletableFuture<List<CustomerDto>> getAllCustomers() {
+        return CACHE.get();
     }
     
-    public static CustomerDto getCustomerById(Long id) throws Exception {
-        HttpResponse<String> res = ApiClient.get("/api/customers/" + id);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), CustomerDto.class);
+    /**
+     * Rows changed since {@code since}, a token from an earlier call; null returns everything.
+     * Merge the result with ChangeMerger and keep the returned token for the next call. A caller
+     * in step with the shared copy is answered from it.
+     */
+    public static CompletableFuture<ChangesDto<CustomerDto>> getChanges(String since) {
+        return CACHE.changesSince(since);
+    }
+
+    /** Brings the shared copy up to date now instead of when its TTL runs out. */
+    public static CompletableFuture<Void> revalidateCache() {
+        return CACHE.getRevalidated().thenApply(customers -> null);
+    }
+
+    /** Drops the shared copy; the next read downloads the whole directory. */
+    public static void invalidateCache() {
+        CACHE.invalidate();
+    }
+
+    private static CompletableFuture<ChangesDto<CustomerDto>> fetchChanges(String since) {
+        String path = "/api/customers/changes" + (since == null ? "" : "?since=" + URLEncoder.encode(since, StandardCharsets.UTF_8));
+        return ApiClient.getJson(path, CUSTOMER_CHANGES);
     }
     
-    public static CustomerDto createCustomer(CustomerDto customer) throws Exception {
-        String body = M.writeValueAsString(customer);
-        HttpResponse<String> res = ApiClient.post("/api/customers", body);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), CustomerDto.class);
+    public static CompletableFuture<CustomerDto> getCustomerById(Long id) {
+        return ApiClient.getJson("/api/customers/" + id, CUSTOMER);
     }
     
-    public static CustomerDto updateCustomer(Long id, CustomerDto customer) throws Exception {
-        String body = M.writeValueAsString(customer);
-        HttpResponse<String> res = ApiClient.put("/api/customers/" + id, body);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), CustomerDto.class);
+    public static CompletableFuture<CustomerDto> createCustomer(CustomerDto customer) {
+        return ApiClient.then(ApiClient.postJson("/api/customers", Json.body(customer), CUSTOMER), CustomerApi::cached);
     }
     
-    public static void deleteCustomer(Long id) throws Exception {
-        HttpResponse<String> res = ApiClient.delete("/api/customers/" + id);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
+    public static CompletableFuture<CustomerDto> updateCustomer(Long id, CustomerDto customer) {
+        return ApiClient.then(ApiClient.putJson("/api/customers/" + id, Json.body(customer), CUSTOMER), CustomerApi::cached);
     }
     
-    private static String safe(String s) {
-        return (s == null || s.isBlank()) ? "<empty body>" : s;
+    public static CompletableFuture<Void> deleteCustomer(Long id) {
+        return ApiClient.then(ApiClient.deleteOk("/api/customers/" + id), done -> {
+            CACHE.remove(id);
+            return null;
+        });
+    }
+
+    private static CustomerDto cached(CustomerDto saved) {
+        CACHE.put(saved);
+        return saved;
     }
 }
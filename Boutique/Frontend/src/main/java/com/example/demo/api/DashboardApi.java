@@ -0,0 +1,15 @@
+package com.example.demo.api;
+
+import com.example.demo.model.DashboardSummaryDto;
+
+import java.util.concurrent.CompletableFuture;
+
+public final class DashboardApi {
+    private DashboardApi() {}
+
+    private static final ApiClient.BodyParser<DashboardSummaryDto> SUMMARY = Json.parser(DashboardSummaryDto.class);
+
+    public static CompletableFuture<DashboardSummaryDto> getSummary() {
+        return ApiClient.getJson("/api/dashboard/summary", SUMMARY);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.demo.api;
+
+import com.example.demo.model.ChangeNotificationDto;
+import com.fasterxml.jackson.databind.ObjectReader;
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Follows the backend's /api/events stream on a background thread and hands the changes to the
+ * screen currently showing, on the FX thread. Changes that arrive while the FX thread is busy are
+ * delivered together as one batch, so a burst of writes costs the screen a single refresh.
+ * Each batch first goes to the shared reference copies, so they stay current on every screen.
+ */
+public final class EventStreamClient {
+    private EventStreamClient() {}
+
+    @FunctionalInterface
+    public interface Listener {
+        void onChanges(List<ChangeNotificationDto> changes);
+    }
+
+    private static final long MIN_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private static final ObjectReader EVENT = Json.reader(ChangeNotificationDto.class);
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private static final Queue<ChangeNotificationDto> PENDING = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean DISPATCH_SCHEDULED = new AtomicBoolean();
+
+    private static volatile Listener listener;
+    private static Thread reader;
+
+    /** Routes changes to the given screen, replacing the previous one; starts the stream on first use. */
+    public static synchronized void listen(Listener screenListener) {
+        listener = screenListener;
+        if (reader == null) {
+            reader = new Thread(EventStreamClient::run, "event-stream");
+            reader.setDaemon(true);
+            reader.start();
+        }
+    }
+
+    /** Called on navigation so a screen that is no longer shown stops receiving changes. */
+    public static void clearListener() {
+        listener = null;
+    }
+
+    private static void run() {
+        long backoff = MIN_BACKOFF_MS;
+        boolean connectedBefore = false;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                HttpRequest req = HttpRequest.newBuilder()
+                        .uri(URI.create(ApiClient.baseUrl() + "/api/events"))
+                        .header("Accept", "text/event-stream")
+                        .GET()
+                        .build();
+                HttpResponse<Stream<String>> res = CLIENT.send(req, HttpResponse.BodyHandlers.ofLines());
+                if (res.statusCode() != 200) {
+                    res.body().close();
+                    throw new IOException("HTTP " + res.statusCode());
+                }
+
+                backoff = MIN_BACKOFF_MS;
+                if (connectedBefore) {
+                    enqueue(new ChangeNotificationDto(null, null, ChangeNotificationDto.RESYNC));
+                }
+                connectedBefore = true;
+                readEvents(res.body());
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                // Backend down or stream dropped; reconnect below
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    private static void readEvents(Stream<String> lines) {
+        try (lines) {
+            StringBuilder data = new StringBuilder();
+            Iterator<String> it = lines.iterator();
+            while (it.hasNext()) {
+                String line = it.next();
+                if (line.isEmpty()) {
+                    if (data.length() > 0) {
+                        parseAndEnqueue(data.toString());
+                        data.setLength(0);
+                    }
+                } else if (line.startsWith("data:")) {
+                    if (data.length() > 0) {
+                        data.append('\n');
+                    }
+                    data.append(line.substring(5).trim());
+                }
+                // "event:" names and ":" heartbeat comments carry nothing we need
+            }
+        }
+    }
+
+    private static void parseAndEnqueue(String json) {
+        try {
+            enqueue(EVENT.readValue(json));
+        } catch (IOException ignored) {
+            // A malformed event is dropped; the next refresh picks up whatever it was about
+        }
+    }
+
+    private static void enqueue(ChangeNotificationDto change) {
+        PENDING.add(change);
+        if (DISPATCH_SCHEDULED.compareAndSet(false, true)) {
+            Platform.runLater(EventStreamClient::dispatch);
+        }
+    }
+
+    private static void dispatch() {
+        DISPATCH_SCHEDULED.set(false);
+        List<ChangeNotificationDto> batch = new ArrayList<>();
+        ChangeNotificationDto change;
+        while ((change = PENDING.poll()) != null) {
+            batch.add(change);
+        }
+
+        if (!batch.isEmpty()) {
+            ReferenceCache.onServerChanges(batch);
+        }
+        Listener current = listener;
+        if (current != null && !batch.isEmpty()) {
+            current.onChanges(batch);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.api;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The one ObjectMapper the API classes share, with a reader cached per target type. Readers and
+ * writers are immutable and thread-safe, so the API threads decode response streams with them
+ * directly instead of building a mapper, or a String, per call.
+ */
+public final class Json {
+    private Json() {}
+
+    public static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final ObjectWriter WRITER = MAPPER.writer();
+    private static final Map<JavaType, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    public static ObjectReader reader(Class<?> type) {
+        return reader(MAPPER.constructType(type));
+    }
+
+    public static ObjectReader reader(TypeReference<?> type) {
+        return reader(MAPPER.constructType(type));
+    }
+
+    private static ObjectReader reader(JavaType type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+
+    /** Parses a response body into {@code type}. */
+    public static <T> ApiClient.BodyParser<T> parser(Class<T> type) {
+        ObjectReader reader = reader(type);
+        return body -> reader.readValue(body);
+    }
+
+    public static <T> ApiClient.BodyParser<T> parser(TypeReference<T> type) {
+        ObjectReader reader = reader(type);
+        return body -> reader.readValue(body);
+    }
+
+    /** A request body writer for {@code value}. */
+    public static ApiClient.BodyWriter body(Object value) {
+        return () -> WRITER.writeValueAsBytes(value);
+    }
+}
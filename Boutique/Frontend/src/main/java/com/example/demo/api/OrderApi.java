@@ -1,91 +1,85 @@
 package com.example.demo.api;
 
+import com.example.demo.model.CheckoutRequestDto;
+import com.example.demo.model.ChangesDto;
 import com.example.demo.model.OrderDto;
+import com.example.demo.model.OrderPageDto;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.databind.SerializationFeature;
 
-import java.net.http.HttpResponse;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public final class OrderApi {
     private OrderApi() {}
 
-    private static final ObjectMapper M = new ObjectMapper()
-            .registerModule(new JavaTimeModule())
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private static final ApiClient.BodyParser<OrderPageDto> ORDER_PAGE = Json.parser(OrderPageDto.class);
+    private static final ApiClient.BodyParser<OrderDto> ORDER = Json.parser(OrderDto.class);
+    private static final ApiClient.BodyParser<List<OrderDto>> ORDERS = Json.parser(new TypeReference<>() {});
+    private static final ApiClient.BodyParser<ChangesDto<OrderDto>> ORDER_CHANGES = Json.parser(new TypeReference<>() {});
 
+    /**
+     * One keyset page of orders, newest first. Pass the previous page's nextCursor as
+     * {@code after} (or null for the first page); any filter left null is not applied.
+     */
+    public static CompletableFuture<OrderPageDto> getOrdersPage(String after, int limit, String status, Long customerId,
+                                                                LocalDateTime from, LocalDateTime to) {
+        StringBuilder path = new StringBuilder("/api/orders/page?limit=").append(limit);
+        if (after != null) path.append("&after=").append(encode(after));
+        if (status != null) path.append("&status=").append(status);
+        if (customerId != null) path.append("&customerId=").append(customerId);
+        if (from != null) path.append("&from=").append(encode(from.toString()));
+        if (to != null) path.append("&to=").append(encode(to.toString()));
+
+        return ApiClient.getJson(path.toString(), ORDER_PAGE);
+    }
+
+    /**
+     * Rows changed since {@code since}, a token from an earlier call; null returns everything.
+     * Merge the result with ChangeMerger and keep the returned token for the next call.
+     */
+    public static CompletableFuture<ChangesDto<OrderDto>> getOrderChanges(String since) {
+        String path = "/api/orders/changes" + (since == null ? "" : "?since=" + encode(since));
+        return ApiClient.getJson(path, ORDER_CHANGES);
+    }
     
-    public static List<OrderDto> getAllOrders() throws Exception {
-        HttpResponse<String> res = ApiClient.get("/api/orders");
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), new TypeReference<List<OrderDto>>() {});
+    public static CompletableFuture<OrderDto> getOrderById(Long id) {
+        return ApiClient.getJson("/api/orders/" + id, ORDER);
     }
     
-    public static OrderDto getOrderById(Long id) throws Exception {
-        HttpResponse<String> res = ApiClient.get("/api/orders/" + id);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), OrderDto.class);
+    public static CompletableFuture<List<OrderDto>> getOrdersByStatus(String status) {
+        return ApiClient.getJson("/api/orders/status/" + status, ORDERS);
     }
     
-    public static List<OrderDto> getOrdersByStatus(String status) throws Exception {
-        HttpResponse<String> res = ApiClient.get("/api/orders/status/" + status);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), new TypeReference<List<OrderDto>>() {});
+    public static CompletableFuture<OrderDto> createOrder(OrderDto order) {
+        return ApiClient.postJson("/api/orders", Json.body(order), ORDER);
     }
     
-    public static OrderDto createOrder(OrderDto order) throws Exception {
-        String body = M.writeValueAsString(order);
-        HttpResponse<String> res = ApiClient.post("/api/orders", body);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), OrderDto.class);
+    /** Creates an order with all of its lines (and optionally fulfills it) in a single request. */
+    public static CompletableFuture<OrderDto> checkout(CheckoutRequestDto request) {
+        return ApiClient.postJson("/api/checkout", Json.body(request), ORDER);
     }
     
-    public static OrderDto updateOrder(Long id, OrderDto order) throws Exception {
-        String body = M.writeValueAsString(order);
-        HttpResponse<String> res = ApiClient.put("/api/orders/" + id, body);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), OrderDto.class);
+    public static CompletableFuture<OrderDto> updateOrder(Long id, OrderDto order) {
+        return ApiClient.putJson("/api/orders/" + id, Json.body(order), ORDER);
     }
     
-    public static OrderDto closeOrder(Long id) throws Exception {
-        HttpResponse<String> res = ApiClient.post("/api/orders/" + id + "/close", "");
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), OrderDto.class);
+    public static CompletableFuture<OrderDto> closeOrder(Long id) {
+        return ApiClient.postJson("/api/orders/" + id + "/close", () -> new byte[0], ORDER);
     }
     
-    public static void deleteOrder(Long id) throws Exception {
-        HttpResponse<String> res = ApiClient.delete("/api/orders/" + id);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
+    public static CompletableFuture<Void> deleteOrder(Long id) {
+        return ApiClient.deleteOk("/api/orders/" + id);
     }
 
-    public static List<OrderDto> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) throws Exception {
-        String start = java.net.URLEncoder.encode(startDate.toString(), "UTF-8");
-        String end = java.net.URLEncoder.encode(endDate.toString(), "UTF-8");
-        HttpResponse<String> res = ApiClient.get("/api/orders/date-range?startDate=" + start + "&endDate=" + end);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), new TypeReference<List<OrderDto>>() {});
+    public static CompletableFuture<List<OrderDto>> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return ApiClient.getJson("/api/orders/date-range?startDate=" + encode(startDate.toString())
+                        + "&endDate=" + encode(endDate.toString()), ORDERS);
     }
-    
-    private static String safe(String s) {
-        return (s == null || s.isBlank()) ? "<empty body>" : s;
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
 }
@@ -2,50 +2,29 @@ package com.example.demo.api;
 
 import com.example.demo.model.OrderItemDto;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.net.http.HttpResponse;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public final class OrderItemApi {
     private OrderItemApi() {}
     
-    private static final ObjectMapper M = new ObjectMapper();
+    private static final ApiClient.BodyParser<OrderItemDto> ORDER_ITEM = Json.parser(OrderItemDto.class);
+    private static final ApiClient.BodyParser<List<OrderItemDto>> ORDER_ITEMS = Json.parser(new TypeReference<>() {});
     
-    public static List<OrderItemDto> getOrderItems(Long orderId) throws Exception {
-        HttpResponse<String> res = ApiClient.get("/api/orders/" + orderId + "/items");
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), new TypeReference<List<OrderItemDto>>() {});
+    public static CompletableFuture<List<OrderItemDto>> getOrderItems(Long orderId) {
+        return ApiClient.getJson("/api/orders/" + orderId + "/items", ORDER_ITEMS);
     }
     
-    public static OrderItemDto addOrderItem(Long orderId, OrderItemDto orderItem) throws Exception {
-        String body = M.writeValueAsString(orderItem);
-        HttpResponse<String> res = ApiClient.post("/api/orders/" + orderId + "/items", body);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), OrderItemDto.class);
+    public static CompletableFuture<OrderItemDto> addOrderItem(Long orderId, OrderItemDto orderItem) {
+        return ApiClient.postJson("/api/orders/" + orderId + "/items", Json.body(orderItem), ORDER_ITEM);
     }
     
-    public static OrderItemDto updateOrderItem(Long orderId, Long itemId, OrderItemDto orderItem) throws Exception {
-        String body = M.writeValueAsString(orderItem);
-        HttpResponse<String> res = ApiClient.put("/api/orders/" + orderId + "/items/" + itemId, body);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), OrderItemDto.class);
+    public static CompletableFuture<OrderItemDto> updateOrderItem(Long orderId, Long itemId, OrderItemDto orderItem) {
+        return ApiClient.putJson("/api/orders/" + orderId + "/items/" + itemId, Json.body(orderItem), ORDER_ITEM);
     }
     
-    public static void removeOrderItem(Long orderId, Long itemId) throws Exception {
-        HttpResponse<String> res = ApiClient.delete("/api/orders/" + orderId + "/items/" + itemId);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-    }
-    
-    private static String safe(String s) {
-        return (s == null || s.isBlank()) ? "<empty body>" : s;
+    public static CompletableFuture<Void> removeOrderItem(Long orderId, Long itemId) {
+        return ApiClient.deleteOk("/api/orders/" + orderId + "/items/" + itemId);
     }
 }
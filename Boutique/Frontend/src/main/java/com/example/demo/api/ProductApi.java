@@ -1,75 +1,93 @@
 package com.example.demo.api;
 
+import com.example.demo.model.ChangesDto;
 import com.example.demo.model.ProductDto;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.net.http.HttpResponse;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 public final class ProductApi {
     private ProductApi() {}
     
-    private static final ObjectMapper M = new ObjectMapper();
+    private static final ApiClient.BodyParser<ProductDto> PRODUCT = Json.parser(ProductDto.class);
+    private static final ApiClient.BodyParser<ChangesDto<ProductDto>> PRODUCT_CHANGES = Json.parser(new TypeReference<>() {});
+    private static final ApiClient.BodyParser<List<ProductDto>> PRODUCTS = Json.parser(new TypeReference<>() {});
+
+    // Stock moves with every sale, so the shared copy is rechecked after a minute at the latest
+    private static final ReferenceCache<ProductDto> CACHE =
+            new ReferenceCache<>("PRODUCT", Duration.ofMinutes(1), ProductApi::fetchChanges, ProductDto::getProductId);
     
-    public static List<ProductDto> getAllProducts() throws Exception {
-        HttpResponse<String> res = ApiClient.get("/api/products");
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), new TypeReference<List<ProductDto>>() {});
+    /** From the shared copy; downloads only on first use. */
+    public static CompletableFuture<List<ProductDto>> getAllProducts() {
+        return CACHE.get();
     }
     
-    public static ProductDto getProductById(Long id) throws Exception {
-        HttpResponse<String> res = ApiClient.get("/api/products/" + id);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), ProductDto.class);
+    /**
+     * Rows changed since {@code since}, a token from an earlier call; null returns everything.
+     * Merge the result with ChangeMerger and keep the returned token for the next call. A caller
+     * in step with the shared copy is answered from it.
+     */
+    public static CompletableFuture<ChangesDto<ProductDto>> getChanges(String since) {
+        return CACHE.changesSince(since);
+    }
+
+    /** Brings the shared copy up to date now instead of when its TTL runs out. */
+    public static CompletableFuture<Void> revalidateCache() {
+        return CACHE.getRevalidated().thenApply(products -> null);
+    }
+
+    /** Drops the shared copy; the next read downloads the whole catalog. */
+    public static void invalidateCache() {
+        CACHE.invalidate();
+    }
+
+    private static CompletableFuture<ChangesDto<ProductDto>> fetchChanges(String since) {
+        String path = "/api/products/changes" + (since == null ? "" : "?since=" + URLEncoder.encode(since, StandardCharsets.UTF_8));
+        return ApiClient.getJson(path, PRODUCT_CHANGES);
+    }
+    
+    public static CompletableFuture<ProductDto> getProductById(Long id) {
+        return ApiClient.getJson("/api/products/" + id, PRODUCT);
     }
     
-    public static List<ProductDto> getProductsByCategory(String category) throws Exception {
-        HttpResponse<String> res = ApiClient.get("/api/products/category/" + category);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), new TypeReference<List<ProductDto>>() {});
+    public static CompletableFuture<List<ProductDto>> getProductsByCategory(String category) {
+        return ApiClient.getJson("/api/products/category/" + category, PRODUCTS);
     }
     
-    public static List<ProductDto> getAvailableProducts() throws Exception {
-        HttpResponse<String> res = ApiClient.get("/api/products/available");
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), new TypeReference<List<ProductDto>>() {});
+    /** Products in stock, filtered from the shared copy the way the server's /available does. */
+    public static CompletableFuture<List<ProductDto>> getAvailableProducts() {
+        return CACHE.get().thenApply(products -> products.stream()
+                .filter(p -> p.getStockQty() != null && p.getStockQty() > 0)
+                .collect(Collectors.toList()));
     }
     
-    public static ProductDto createProduct(ProductDto product) throws Exception {
-        String body = M.writeValueAsString(product);
-        HttpResponse<String> res = ApiClient.post("/api/products", body);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), ProductDto.class);
+    /** Products at or below the server's low-stock threshold, lowest stock first. */
+    public static CompletableFuture<List<ProductDto>> getLowStockProducts() {
+        return ApiClient.getJson("/api/products/low-stock", PRODUCTS);
     }
     
-    public static ProductDto updateProduct(Long id, ProductDto product) throws Exception {
-        String body = M.writeValueAsString(product);
-        HttpResponse<String> res = ApiClient.put("/api/products/" + id, body);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
-        return M.readValue(res.body(), ProductDto.class);
+    public static CompletableFuture<ProductDto> createProduct(ProductDto product) {
+        return ApiClient.then(ApiClient.postJson("/api/products", Json.body(product), PRODUCT), ProductApi::cached);
     }
     
-    public static void deleteProduct(Long id) throws Exception {
-        HttpResponse<String> res = ApiClient.delete("/api/products/" + id);
-        if (res.statusCode() / 100 != 2) {
-            throw new RuntimeException("HTTP " + res.statusCode() + " - " + safe(res.body()));
-        }
+    public static CompletableFuture<ProductDto> updateProduct(Long id, ProductDto product) {
+        return ApiClient.then(ApiClient.putJson("/api/products/" + id, Json.body(product), PRODUCT), ProductApi::cached);
     }
     
-    private static String safe(String s) {
-        return (s == null || s.isBlank()) ? "<empty body>" : s;
+    public static CompletableFuture<Void> deleteProduct(Long id) {
+        return ApiClient.then(ApiClient.deleteOk("/api/products/" + id), done -> {
+            CACHE.remove(id);
+            return null;
+        });
+    }
+
+    private static ProductDto cached(ProductDto saved) {
+        CACHE.put(saved);
+        return saved;
     }
 }
@@ -0,0 +1,202 @@
+package com.example.demo.api;
+
+import com.example.demo.model.ChangeNotificationDto;
+import com.example.demo.model.ChangesDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Client copy of a reference table (products, customers) shared by every screen, so moving
+ * between screens downloads nothing while the copy is fresh. It is kept current through the
+ * server's changes endpoint: the first load is a full snapshot and every revalidation asks only
+ * for rows changed since the copy's sync token.
+ *
+ * A copy older than its TTL is still returned at once while a revalidation runs in the
+ * background. Change events from the server and local writes through the owning API class keep
+ * it current in between; {@link #invalidate()} drops it. The rows are shared with the screens,
+ * which must not change them except to mirror a write the server has accepted.
+ */
+final class ReferenceCache<T> {
+
+    private static final List<ReferenceCache<?>> ALL = new CopyOnWriteArrayList<>();
+
+    private final String type;
+    private final long ttlNanos;
+    private final Function<String, CompletableFuture<ChangesDto<T>>> fetchChanges;
+    private final Function<T, Long> idOf;
+
+    // Guarded by this
+    private final Map<Long, T> rows = new LinkedHashMap<>();
+    private String token;
+    private long expiresAt;
+    private CompletableFuture<ChangesDto<T>> revalidation;
+    private String revalidationSince;
+    // Bumped by invalidate() so an answer to an earlier request is not applied
+    private long generation;
+
+    /**
+     * @param type         entity type in the server's change events, e.g. "PRODUCT"
+     * @param fetchChanges calls the changes endpoint; a null token asks for a full snapshot
+     */
+    ReferenceCache(String type, Duration ttl, Function<String, CompletableFuture<ChangesDto<T>>> fetchChanges,
+                   Function<T, Long> idOf) {
+        this.type = type;
+        this.ttlNanos = ttl.toNanos();
+        this.fetchChanges = fetchChanges;
+        this.idOf = idOf;
+        ALL.add(this);
+    }
+
+    /** Called by EventStreamClient with every batch, before the screen sees it. */
+    static void onServerChanges(List<ChangeNotificationDto> changes) {
+        for (ReferenceCache<?> cache : ALL) {
+            if (changes.stream().anyMatch(c -> c.isAbout(cache.type))) {
+                cache.expireAndRevalidate();
+            }
+        }
+    }
+
+    /** All rows, without a network call unless nothing has been loaded yet. */
+    synchronized CompletableFuture<List<T>> get() {
+        if (token == null) {
+            return revalidate().thenApply(changes -> rows());
+        }
+        if (System.nanoTime() - expiresAt > 0) {
+            revalidate();
+        }
+        return CompletableFuture.completedFuture(rowsLocked());
+    }
+
+    /** All rows after asking the server for what changed. */
+    CompletableFuture<List<T>> getRevalidated() {
+        return revalidate().thenApply(changes -> rows());
+    }
+
+    /**
+     * Answers a screen's own delta sync. A screen that is in step with this copy gets an empty
+     * delta while the copy is fresh and shares the revalidation otherwise, so a server event
+     * costs one call however many screens and caches follow it.
+     */
+    synchronized CompletableFuture<ChangesDto<T>> changesSince(String since) {
+        if (token != null && since == null) {
+            if (System.nanoTime() - expiresAt > 0) {
+                revalidate();
+            }
+            return CompletableFuture.completedFuture(changes(true, rowsLocked()));
+        }
+        if (revalidation != null && Objects.equals(revalidationSince, since)) {
+            return revalidation.thenApply(changes -> changes);
+        }
+        if (token != null && token.equals(since)) {
+            if (System.nanoTime() - expiresAt <= 0) {
+                return CompletableFuture.completedFuture(changes(false, List.of()));
+            }
+            return revalidate().thenApply(changes -> changes);
+        }
+        if (token == null && since == null) {
+            return revalidate().thenApply(changes -> changes);
+        }
+        // The screen is at some other version; answer it without touching this copy
+        return fetchChanges.apply(since);
+    }
+
+    /** Adds or replaces a row after the server accepted a create or update. */
+    synchronized void put(T row) {
+        if (token != null) {
+            rows.put(idOf.apply(row), row);
+        }
+    }
+
+    synchronized void remove(Long id) {
+        rows.remove(id);
+    }
+
+    /** Drops the copy; the next read downloads a full snapshot. */
+    synchronized void invalidate() {
+        rows.clear();
+        token = null;
+        expiresAt = 0;
+        revalidation = null;
+        revalidationSince = null;
+        generation++;
+    }
+
+    private synchronized void expireAndRevalidate() {
+        if (token == null) {
+            return;
+        }
+        expiresAt = System.nanoTime();
+        revalidate();
+    }
+
+    /** Starts a revalidation unless one is running. Cancelling a dependent never cancels it. */
+    private synchronized CompletableFuture<ChangesDto<T>> revalidate() {
+        if (revalidation != null) {
+            return revalidation;
+        }
+        String since = token;
+        long startedIn = generation;
+        CompletableFuture<ChangesDto<T>> request = new CompletableFuture<>();
+        fetchChanges.apply(since).whenComplete((changes, error) -> {
+            synchronized (this) {
+                if (revalidation == request) {
+                    revalidation = null;
+                    revalidationSince = null;
+                }
+                if (error == null && startedIn == generation && Objects.equals(since, token)) {
+                    apply(changes);
+                }
+            }
+            if (error == null) {
+                request.complete(changes);
+            } else {
+                request.completeExceptionally(error);
+            }
+        });
+        if (!request.isDone()) {
+            revalidation = request;
+            revalidationSince = since;
+        }
+        return request;
+    }
+
+    // Caller holds the lock
+    private void apply(ChangesDto<T> changes) {
+        if (changes.isFull()) {
+            rows.clear();
+        }
+        for (Long id : changes.getDeleted()) {
+            rows.remove(id);
+        }
+        for (T row : changes.getUpserted()) {
+            rows.put(idOf.apply(row), row);
+        }
+        token = changes.getToken();
+        expiresAt = System.nanoTime() + ttlNanos;
+    }
+
+    private synchronized List<T> rows() {
+        return rowsLocked();
+    }
+
+    private List<T> rowsLocked() {
+        return new ArrayList<>(rows.values());
+    }
+
+    private ChangesDto<T> changes(boolean full, List<T> upserted) {
+        ChangesDto<T> changes = new ChangesDto<>();
+        changes.setToken(token);
+        changes.setFull(full);
+        changes.setUpserted(upserted);
+        changes.setDeleted(new ArrayList<>());
+        return changes;
+    }
+}
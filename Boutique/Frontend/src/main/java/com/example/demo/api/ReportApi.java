@@ -0,0 +1,22 @@
+package com.example.demo.api;
+
+import com.example.demo.model.SalesReportDto;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+public final class ReportApi {
+    private ReportApi() {}
+
+    private static final ApiClient.BodyParser<SalesReportDto> REPORT = Json.parser(SalesReportDto.class);
+
+    /** Aggregated sales of the orders placed in [from, to); groupBy is "product", "category" or "day". */
+    public static CompletableFuture<SalesReportDto> getSalesReport(LocalDateTime from, LocalDateTime to, String groupBy) {
+        String path = "/api/reports/sales?from=" + URLEncoder.encode(from.toString(), StandardCharsets.UTF_8)
+                + "&to=" + URLEncoder.encode(to.toString(), StandardCharsets.UTF_8)
+                + "&groupBy=" + groupBy;
+        return ApiClient.getJson(path, REPORT);
+    }
+}
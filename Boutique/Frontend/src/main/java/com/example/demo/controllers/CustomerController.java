@@ -2,17 +2,19 @@ package com.example.demo.controllers;
 
 import com.example.demo.Launcher;
 import com.example.demo.api.CustomerApi;
+import com.example.demo.api.EventStreamClient;
 import com.example.demo.model.CustomerDto;
 import com.example.demo.util.AlertUtils;
+import com.example.demo.util.ChangeMerger;
+import com.example.demo.util.FxRequests;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.util.List;
 
-public class CustomerController {
+public class CustomerController implements Screen {
     
     @FXML private TableView<CustomerDto> customersTable;
     @FXML private TableColumn<CustomerDto, Long> customerIdColumn;
@@ -25,16 +27,32 @@ public class CustomerController {
     @FXML private Button addButton;
     @FXML private Button updateButton;
     @FXML private Button deleteButton;
+    @FXML private ProgressIndicator loadingIndicator;
     
+    private final FxRequests requests = FxRequests.forCachedScreen();
     private ObservableList<CustomerDto> customers = FXCollections.observableArrayList();
     private CustomerDto selectedCustomer;
+    private String syncToken;
+    private boolean loading;
+    private boolean reloadRequested;
     
     @FXML
     public void initialize() {
+        loadingIndicator.visibleProperty().bind(requests.busyProperty());
         setupTable();
-        loadCustomers();
         setupEventHandlers();
     }
+
+    @Override
+    public void onShow() {
+        EventStreamClient.listen(changes -> {
+            if (changes.stream().anyMatch(c -> c.isAbout("CUSTOMER"))) {
+                loadCustomers();
+            }
+        });
+        // In step with the shared copy this is answered without a network call
+        loadCustomers();
+    }
     
     private void setupTable() {
         customerIdColumn.setCellValueFactory(new PropertyValueFactory<>("customerId"));
@@ -63,14 +81,31 @@ public class CustomerController {
         deleteButton.setDisable(true);
     }
     
+    /**
+     * Loads everything the first time, then only what changed since the last load. A request
+     * made while a load is running is folded into one more load after it.
+     */
     private void loadCustomers() {
-        try {
-            List<CustomerDto> customerList = CustomerApi.getAllCustomers();
-            customers.clear();
-            customers.addAll(customerList);
-        } catch (Exception e) {
-            AlertUtils.error("Error loading customers: " + e.getMessage());
-            e.printStackTrace();
+        if (loading) {
+            reloadRequested = true;
+            return;
+        }
+        loading = true;
+        requests.run(CustomerApi.getChanges(syncToken), changes -> {
+            ChangeMerger.merge(customers, changes, CustomerDto::getCustomerId);
+            syncToken = changes.getToken();
+            loadFinished();
+        }, error -> {
+            AlertUtils.error("Error loading customers: " + FxRequests.messageOf(error));
+            loadFinished();
+        });
+    }
+
+    private void loadFinished() {
+        loading = false;
+        if (reloadRequested) {
+            reloadRequested = false;
+            loadCustomers();
         }
     }
     
@@ -86,26 +121,22 @@ public class CustomerController {
     
     @FXML
     public void addCustomer() {
-        try {
-            String name = nameField.getText().trim();
-            String contact = contactField.getText().trim();
-            
-            if (name.isEmpty() || contact.isEmpty()) {
-                AlertUtils.warn("Please fill in all fields");
-                return;
+        String name = nameField.getText().trim();
+        String contact = contactField.getText().trim();
+        
+        if (name.isEmpty() || contact.isEmpty()) {
+            AlertUtils.warn("Please fill in all fields");
+            return;
+        }
+        
+        CustomerDto newCustomer = new CustomerDto(null, name, contact);
+        requests.run(CustomerApi.createCustomer(newCustomer), createdCustomer -> {
+            if (customers.stream().noneMatch(c -> c.getCustomerId().equals(createdCustomer.getCustomerId()))) {
+                customers.add(createdCustomer);
             }
-            
-            CustomerDto newCustomer = new CustomerDto(null, name, contact);
-            CustomerDto createdCustomer = CustomerApi.createCustomer(newCustomer);
-            
-            customers.add(createdCustomer);
             clearFields();
             AlertUtils.info("Customer added successfully");
-            
-        } catch (Exception e) {
-            AlertUtils.error("Error adding customer: " + e.getMessage());
-            e.printStackTrace();
-        }
+        }, "Error adding customer: ");
     }
     
     @FXML
@@ -115,28 +146,24 @@ public class CustomerController {
             return;
         }
         
-        try {
-            String name = nameField.getText().trim();
-            String contact = contactField.getText().trim();
-            
-            if (name.isEmpty() || contact.isEmpty()) {
-                AlertUtils.warn("Please fill in all fields");
-                return;
-            }
-            
-            selectedCustomer.setName(name);
-            selectedCustomer.setContact(contact);
-            
-            CustomerApi.updateCustomer(selectedCustomer.getCustomerId(), selectedCustomer);
-            
+        String name = nameField.getText().trim();
+        String contact = contactField.getText().trim();
+        
+        if (name.isEmpty() || contact.isEmpty()) {
+            AlertUtils.warn("Please fill in all fields");
+            return;
+        }
+        
+        // The row only changes once the server has accepted the update
+        CustomerDto customer = selectedCustomer;
+        CustomerDto update = new CustomerDto(customer.getCustomerId(), name, contact);
+        requests.run(CustomerApi.updateCustomer(customer.getCustomerId(), update), updated -> {
+            customer.setName(name);
+            customer.setContact(contact);
             customersTable.refresh();
             clearFields();
             AlertUtils.info("Customer updated successfully");
-            
-        } catch (Exception e) {
-            AlertUtils.error("Error updating customer: " + e.getMessage());
-            e.printStackTrace();
-        }
+        }, "Error updating customer: ");
     }
     
     @FXML
@@ -147,15 +174,12 @@ public class CustomerController {
         }
         
         if (AlertUtils.confirm("Are you sure you want to delete this customer?")) {
-            try {
-                CustomerApi.deleteCustomer(selectedCustomer.getCustomerId());
-                customers.remove(selectedCustomer);
+            CustomerDto customer = selectedCustomer;
+            requests.run(CustomerApi.deleteCustomer(customer.getCustomerId()), done -> {
+                customers.remove(customer);
                 clearFields();
                 AlertUtils.info("Customer deleted successfully");
-            } catch (Exception e) {
-                AlertUtils.error("Error deleting customer: " + e.getMessage());
-                e.printStackTrace();
-            }
+            }, "Error deleting customer: ");
         }
     }
     
@@ -2,9 +2,9 @@ package com.example.demo.controllers;
 
 import com.example.demo.Launcher;
 import com.example.demo.api.AuthApi;
-import com.example.demo.model.AuthResponse;
 import com.example.demo.model.LoginRequest;
 import com.example.demo.util.AlertUtils;
+import com.example.demo.util.FxRequests;
 import javafx.fxml.FXML;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
@@ -13,26 +13,26 @@ public class LoginController {
     @FXML private TextField username;
     @FXML private PasswordField password;
 
+    private final FxRequests requests = new FxRequests();
+
     public void onLogin() {
-        try {
-            String u = username.getText() == null ? "" : username.getText().trim();
-            String p = password.getText() == null ? "" : password.getText().trim();
-            if (u.isEmpty() || p.isEmpty()) { 
-                AlertUtils.warn("Please enter username and password."); 
-                return; 
-            }
+        if (requests.busyProperty().get()) {
+            return;
+        }
+        String u = username.getText() == null ? "" : username.getText().trim();
+        String p = password.getText() == null ? "" : password.getText().trim();
+        if (u.isEmpty() || p.isEmpty()) { 
+            AlertUtils.warn("Please enter username and password."); 
+            return; 
+        }
 
-            AuthApi.login(new LoginRequest(u, p));
-            if(username.getText().equals("joelle"))
+        requests.run(AuthApi.login(new LoginRequest(u, p)), auth -> {
+            if(u.equals("joelle"))
                 Launcher.go("dashboard.fxml", "Retail Dashboard");
             else{
                 Launcher.go("staff-dashboard.fxml", "Retail Dashboard");
             }
-
-        } catch (Exception ex) {
-            AlertUtils.error("Login failed: " + ex.getMessage());
-            ex.printStackTrace();
-        }
+        }, "Login failed: ");
     }
 
     public void goRegister(){ Launcher.go("register.fxml", "Register"); }
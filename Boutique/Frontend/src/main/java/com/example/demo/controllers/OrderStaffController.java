@@ -2,14 +2,19 @@ package com.example.demo.controllers;
 
 import com.example.demo.Launcher;
 import com.example.demo.api.CustomerApi;
+import com.example.demo.api.EventStreamClient;
 import com.example.demo.api.OrderApi;
 import com.example.demo.api.OrderItemApi;
 import com.example.demo.api.ProductApi;
+import com.example.demo.model.ChangeNotificationDto;
+import com.example.demo.model.CheckoutRequestDto;
 import com.example.demo.model.CustomerDto;
 import com.example.demo.model.OrderDto;
 import com.example.demo.model.OrderItemDto;
 import com.example.demo.model.ProductDto;
 import com.example.demo.util.AlertUtils;
+import com.example.demo.util.ChangeMerger;
+import com.example.demo.util.FxRequests;
 import com.example.demo.util.InvoiceGenerator;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -23,12 +28,19 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
-public class OrderStaffController {
+public class OrderStaffController implements Screen {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+    private static final int ORDERS_PAGE_SIZE = 100;
+    // The server's keyset order for GET /api/orders/page
+    private static final Comparator<OrderDto> NEWEST_FIRST =
+            Comparator.comparing(OrderDto::getPlacedAt).thenComparing(OrderDto::getOrderId).reversed();
 
     @FXML private TableView<OrderDto> ordersTable;
     @FXML private TableColumn<OrderDto, Long> orderIdColumn;
@@ -41,8 +53,10 @@ public class OrderStaffController {
     @FXML private ComboBox<CustomerDto> customerCombo;
     @FXML private TextField descriptionField;
     @FXML private Button createOrderButton;
+    @FXML private Button checkoutButton;
     @FXML private Button fulfillOrderButton;
     @FXML private Button deleteOrderButton;
+    @FXML private Button loadMoreButton;
 
     @FXML private TableView<OrderItemDto> orderItemsTable;
     @FXML private TableColumn<OrderItemDto, Long> productIdColumn;
@@ -55,6 +69,9 @@ public class OrderStaffController {
     @FXML private TextField quantityField;
     @FXML private Button addItemButton;
     @FXML private Button removeItemButton;
+    @FXML private ProgressIndicator loadingIndicator;
+
+    private final FxRequests requests = FxRequests.forCachedScreen();
 
     private final ObservableList<OrderDto> orders = FXCollections.observableArrayList();
     private final ObservableList<CustomerDto> customers = FXCollections.observableArrayList();
@@ -63,15 +80,33 @@ public class OrderStaffController {
 
     private OrderDto selectedOrder;
     private OrderItemDto selectedOrderItem;
+    private String nextOrdersCursor;
+    private String ordersSyncToken;
+    private CompletableFuture<List<OrderItemDto>> itemsRequest;
 
     @FXML
     public void initialize() {
+        loadingIndicator.visibleProperty().bind(requests.busyProperty());
         setupTables();
         setupComboBoxes();
-        loadData();
         setupEventHandlers();
     }
 
+    @Override
+    public void onShow() {
+        EventStreamClient.listen(this::onServerChanges);
+        if (ordersSyncToken == null) {
+            loadData();
+            return;
+        }
+        // Back from another screen: fetch only the orders changed meanwhile
+        applyOrderChanges();
+        // Reloading the pickers would drop their selection, so a sale in progress keeps them
+        if (selectedOrder != null || orderItems.isEmpty()) {
+            loadPickers("Error loading data: ");
+        }
+    }
+
     private void setupTables() {
         orderIdColumn.setCellValueFactory(new PropertyValueFactory<>("orderId"));
         orderDescriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
@@ -127,6 +162,7 @@ public class OrderStaffController {
         ordersTable.getSelectionModel().selectedItemProperty().addListener((obs, old, neu) -> {
             selectedOrder = neu;
             if (neu == null) {
+                cancelItemsRequest();
                 orderItems.clear();
             } else {
                 loadOrderItems(neu.getOrderId());
@@ -206,69 +242,143 @@ public class OrderStaffController {
     }
 
     private void loadData() {
-        try {
-            List<OrderDto> orderList = OrderApi.getAllOrders();
-            orderList.sort(Comparator.comparing(OrderDto::getPlacedAt, Comparator.nullsLast(Comparator.reverseOrder())));
-            orders.setAll(orderList);
+        requests.run(OrderApi.getOrdersPage(null, ORDERS_PAGE_SIZE, null, null, null, null), page -> {
+            orders.setAll(page.getOrders());
+            nextOrdersCursor = page.getNextCursor();
+            ordersSyncToken = page.getSyncToken();
+            loadMoreButton.setDisable(nextOrdersCursor == null);
             selectedOrder = null;
             ordersTable.getSelectionModel().clearSelection();
             orderItems.clear();
             updateActionButtons();
+        }, "Error loading data: ");
+        loadPickers("Error loading data: ");
+    }
 
-            List<CustomerDto> customerList = CustomerApi.getAllCustomers();
-            customers.setAll(customerList);
+    private void loadPickers(String failurePrefix) {
+        requests.run(CustomerApi.getAllCustomers(), customerList -> customers.setAll(customerList), failurePrefix);
+        requests.run(ProductApi.getAvailableProducts(), productList -> products.setAll(productList), failurePrefix);
+    }
 
-            List<ProductDto> productList = ProductApi.getAvailableProducts();
-            products.setAll(productList);
-        } catch (Exception e) {
-            AlertUtils.error("Error loading data: " + e.getMessage());
-            e.printStackTrace();
+    @FXML
+    public void loadMoreOrders() {
+        if (nextOrdersCursor == null) {
+            return;
         }
+        // Disabled until the page arrives so a second click cannot fetch the same cursor twice
+        loadMoreButton.setDisable(true);
+        requests.run(OrderApi.getOrdersPage(nextOrdersCursor, ORDERS_PAGE_SIZE, null, null, null, null), page -> {
+            orders.addAll(page.getOrders());
+            nextOrdersCursor = page.getNextCursor();
+            loadMoreButton.setDisable(nextOrdersCursor == null);
+        }, error -> {
+            loadMoreButton.setDisable(false);
+            AlertUtils.error("Error loading more orders: " + FxRequests.messageOf(error));
+        });
     }
 
     private void loadOrderItems(Long orderId) {
-        try {
-            List<OrderItemDto> items = OrderItemApi.getOrderItems(orderId);
-            orderItems.setAll(items);
-        } catch (Exception e) {
-            AlertUtils.error("Error loading order items: " + e.getMessage());
-            e.printStackTrace();
+        // Only the latest selection's items may land in the table
+        cancelItemsRequest();
+        itemsRequest = OrderItemApi.getOrderItems(orderId);
+        requests.run(itemsRequest, items -> orderItems.setAll(items), "Error loading order items: ");
+    }
+
+    private void cancelItemsRequest() {
+        if (itemsRequest != null) {
+            itemsRequest.cancel(true);
+            itemsRequest = null;
         }
     }
 
     @FXML
     public void createOrder() {
-        try {
-            CustomerDto customer = customerCombo.getSelectionModel().getSelectedItem();
-            if (customer == null) {
-                AlertUtils.warn("Please select a customer");
-                return;
-            }
+        CustomerDto customer = customerCombo.getSelectionModel().getSelectedItem();
+        if (customer == null) {
+            AlertUtils.warn("Please select a customer");
+            return;
+        }
 
-            String description = descriptionField.getText() == null ? "" : descriptionField.getText().trim();
+        String description = descriptionField.getText() == null ? "" : descriptionField.getText().trim();
 
-            OrderDto newOrder = new OrderDto(
-                    null,
-                    customer.getCustomerId(),
-                    customer.getName(),
-                    description.isEmpty() ? " " : description,
-                    null,
-                    "PENDING",
-                    null,
-                    BigDecimal.ZERO
-            );
+        // Lines added before the order exists go to the server together with it
+        if (selectedOrder == null && !orderItems.isEmpty()) {
+            submitCart(customer, description, false);
+            return;
+        }
 
-            OrderDto createdOrder = OrderApi.createOrder(newOrder);
+        OrderDto newOrder = new OrderDto(
+                null,
+                customer.getCustomerId(),
+                customer.getName(),
+                description.isEmpty() ? " " : description,
+                null,
+                "PENDING",
+                null,
+                BigDecimal.ZERO
+        );
+
+        setSubmitting(true);
+        requests.run(OrderApi.createOrder(newOrder), createdOrder -> {
+            setSubmitting(false);
             orders.add(0, createdOrder);
 
             customerCombo.getSelectionModel().clearSelection();
             descriptionField.clear();
 
             AlertUtils.info("Order created successfully");
-        } catch (Exception e) {
-            AlertUtils.error("Error creating order: " + e.getMessage());
-            e.printStackTrace();
+        }, error -> {
+            setSubmitting(false);
+            AlertUtils.error("Error creating order: " + FxRequests.messageOf(error));
+        });
+    }
+
+    @FXML
+    public void checkout() {
+        CustomerDto customer = customerCombo.getSelectionModel().getSelectedItem();
+        if (customer == null) {
+            AlertUtils.warn("Please select a customer");
+            return;
         }
+        if (selectedOrder != null || orderItems.isEmpty()) {
+            AlertUtils.warn("Clear the order selection and add items to the new sale first");
+            return;
+        }
+
+        String description = descriptionField.getText() == null ? "" : descriptionField.getText().trim();
+        submitCart(customer, description, true);
+    }
+
+    private void submitCart(CustomerDto customer, String description, boolean fulfill) {
+        List<CheckoutRequestDto.Line> lines = new ArrayList<>();
+        for (OrderItemDto item : orderItems) {
+            lines.add(new CheckoutRequestDto.Line(item.getProductId(), item.getQuantity()));
+        }
+
+        setSubmitting(true);
+        requests.run(OrderApi.checkout(new CheckoutRequestDto(
+                customer.getCustomerId(),
+                description.isEmpty() ? " " : description,
+                lines,
+                fulfill)), createdOrder -> {
+            setSubmitting(false);
+            orders.add(0, createdOrder);
+            orderItems.clear();
+
+            customerCombo.getSelectionModel().clearSelection();
+            descriptionField.clear();
+
+            AlertUtils.info(fulfill ? "Sale completed" : "Order created successfully");
+        }, error -> {
+            setSubmitting(false);
+            AlertUtils.error((fulfill ? "Error during checkout: " : "Error creating order: ") + FxRequests.messageOf(error));
+        });
+    }
+
+    /** Holds the create buttons while an order is on its way, so a double click cannot place it twice. */
+    private void setSubmitting(boolean submitting) {
+        createOrderButton.setDisable(submitting);
+        checkoutButton.setDisable(submitting);
     }
 
     @FXML
@@ -282,18 +392,19 @@ public class OrderStaffController {
             return;
         }
 
-        try {
-            OrderDto updated = OrderApi.closeOrder(selectedOrder.getOrderId());
-            selectedOrder.setStatus(updated.getStatus());
-            selectedOrder.setPlacedAt(updated.getPlacedAt());
-            selectedOrder.setTotal(updated.getTotal());
+        OrderDto order = selectedOrder;
+        fulfillOrderButton.setDisable(true);
+        requests.run(OrderApi.closeOrder(order.getOrderId()), updated -> {
+            order.setStatus(updated.getStatus());
+            order.setPlacedAt(updated.getPlacedAt());
+            order.setTotal(updated.getTotal());
             ordersTable.refresh();
+            updateActionButtons();
             AlertUtils.info("Order marked as fulfilled");
-        } catch (Exception e) {
-            AlertUtils.error("Error fulfilling order: " + e.getMessage());
-            e.printStackTrace();
-        }
-        updateActionButtons();
+        }, error -> {
+            updateActionButtons();
+            AlertUtils.error("Error fulfilling order: " + FxRequests.messageOf(error));
+        });
     }
 
     @FXML
@@ -308,27 +419,22 @@ public class OrderStaffController {
         }
 
         if (AlertUtils.confirm("Are you sure you want to delete this order?")) {
-            try {
-                OrderApi.deleteOrder(selectedOrder.getOrderId());
-                orders.remove(selectedOrder);
-                orderItems.clear();
-                selectedOrder = null;
+            OrderDto order = selectedOrder;
+            requests.run(OrderApi.deleteOrder(order.getOrderId()), done -> {
+                orders.remove(order);
+                if (selectedOrder == order) {
+                    orderItems.clear();
+                    selectedOrder = null;
+                }
+                updateActionButtons();
                 AlertUtils.info("Order deleted successfully");
-            } catch (Exception e) {
-                AlertUtils.error("Error deleting order: " + e.getMessage());
-                e.printStackTrace();
-            }
+            }, "Error deleting order: ");
         }
-        updateActionButtons();
     }
 
     @FXML
     public void addOrderItem() {
-        if (selectedOrder == null) {
-            AlertUtils.warn("Please select an order first");
-            return;
-        }
-        if (!"PENDING".equals(selectedOrder.getStatus())) {
+        if (selectedOrder != null && !"PENDING".equals(selectedOrder.getStatus())) {
             AlertUtils.warn("Items can only be added to pending orders");
             return;
         }
@@ -348,6 +454,13 @@ public class OrderStaffController {
                 return;
             }
 
+            if (selectedOrder == null) {
+                addToCart(product, quantity);
+                productCombo.getSelectionModel().clearSelection();
+                quantityField.clear();
+                return;
+            }
+
             OrderItemDto request = new OrderItemDto(null,
                     selectedOrder.getOrderId(),
                     product.getProductId(),
@@ -356,43 +469,70 @@ public class OrderStaffController {
                     quantity,
                     null);
 
-            OrderItemDto createdItem = OrderItemApi.addOrderItem(selectedOrder.getOrderId(), request);
-            orderItems.add(createdItem);
-            refreshSelectedOrderSummary();
+            OrderDto order = selectedOrder;
+            requests.run(OrderItemApi.addOrderItem(order.getOrderId(), request), createdItem -> {
+                if (selectedOrder == order) {
+                    orderItems.add(createdItem);
+                    refreshSelectedOrderSummary();
+                }
 
-            productCombo.getSelectionModel().clearSelection();
-            quantityField.clear();
+                productCombo.getSelectionModel().clearSelection();
+                quantityField.clear();
 
-            AlertUtils.info("Item added to order");
+                AlertUtils.info("Item added to order");
+            }, "Error adding item to order: ");
         } catch (NumberFormatException ex) {
             AlertUtils.warn("Please enter a valid quantity");
-        } catch (Exception e) {
-            AlertUtils.error("Error adding item to order: " + e.getMessage());
-            e.printStackTrace();
         }
     }
 
+    /** Adds a line to the new sale held locally until Create Order or Checkout. */
+    private void addToCart(ProductDto product, int quantity) {
+        for (OrderItemDto item : orderItems) {
+            if (item.getProductId().equals(product.getProductId())) {
+                item.setQuantity(item.getQuantity() + quantity);
+                item.setSubtotal(item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+                orderItemsTable.refresh();
+                return;
+            }
+        }
+        orderItems.add(new OrderItemDto(null,
+                null,
+                product.getProductId(),
+                product.getName(),
+                product.getPrice(),
+                quantity,
+                product.getPrice().multiply(BigDecimal.valueOf(quantity))));
+    }
+
     @FXML
     public void removeOrderItem() {
-        if (selectedOrder == null || selectedOrderItem == null) {
+        if (selectedOrderItem == null) {
             AlertUtils.warn("Please select an item to remove");
             return;
         }
+        if (selectedOrder == null) {
+            orderItems.remove(selectedOrderItem);
+            selectedOrderItem = null;
+            return;
+        }
         if (!"PENDING".equals(selectedOrder.getStatus())) {
             AlertUtils.warn("Items can only be removed from pending orders");
             return;
         }
 
-        try {
-            OrderItemApi.removeOrderItem(selectedOrder.getOrderId(), selectedOrderItem.getId());
-            orderItems.remove(selectedOrderItem);
-            selectedOrderItem = null;
-            refreshSelectedOrderSummary();
+        OrderDto order = selectedOrder;
+        OrderItemDto item = selectedOrderItem;
+        requests.run(OrderItemApi.removeOrderItem(order.getOrderId(), item.getId()), done -> {
+            if (selectedOrder == order) {
+                orderItems.remove(item);
+                refreshSelectedOrderSummary();
+            }
+            if (selectedOrderItem == item) {
+                selectedOrderItem = null;
+            }
             AlertUtils.info("Item removed from order");
-        } catch (Exception e) {
-            AlertUtils.error("Error removing item from order: " + e.getMessage());
-            e.printStackTrace();
-        }
+        }, "Error removing item from order: ");
     }
 
     @FXML
@@ -433,22 +573,67 @@ public class OrderStaffController {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(customerData -> {
-            try {
-                CustomerDto createdCustomer = CustomerApi.createCustomer(customerData);
-                customers.add(createdCustomer);
-                customerCombo.getSelectionModel().select(createdCustomer);
-                AlertUtils.info("Customer added successfully");
-            } catch (Exception e) {
-                AlertUtils.error("Error adding customer: " + e.getMessage());
-                e.printStackTrace();
-            }
-        });
+        dialog.showAndWait().ifPresent(customerData ->
+                requests.run(CustomerApi.createCustomer(customerData), createdCustomer -> {
+                    customers.add(createdCustomer);
+                    customerCombo.getSelectionModel().select(createdCustomer);
+                    AlertUtils.info("Customer added successfully");
+                }, "Error adding customer: "));
     }
 
     @FXML
     public void refreshOrders() {
-        loadData();
+        if (ordersSyncToken == null) {
+            loadData();
+            return;
+        }
+        applyOrderChanges();
+        // The pickers normally come from the shared copies; an explicit refresh checks them with the server
+        requests.run(CompletableFuture.allOf(CustomerApi.revalidateCache(), ProductApi.revalidateCache()),
+                done -> loadPickers("Error refreshing orders: "), "Error refreshing orders: ");
+    }
+
+    /** Pulls the order delta when another till changes an order; the pickers are left alone mid-sale. */
+    private void onServerChanges(List<ChangeNotificationDto> changes) {
+        if (ordersSyncToken == null || changes.stream().noneMatch(c -> c.isAbout("ORDER"))) {
+            return;
+        }
+        applyOrderChanges();
+    }
+
+    private void applyOrderChanges() {
+        // Only orders written since the last load come back; new ones go to the top
+        requests.run(OrderApi.getOrderChanges(ordersSyncToken), changes -> {
+            if (changes.isResync()) {
+                // The server no longer has the changes since our token: start again from the first page
+                reloadFirstPage();
+                return;
+            }
+            Long selectedId = selectedOrder == null ? null : selectedOrder.getOrderId();
+            ChangeMerger.mergePage(orders, changes, OrderDto::getOrderId, NEWEST_FIRST);
+            ordersSyncToken = changes.getToken();
+            reselectOrder(selectedId);
+        }, "Error refreshing orders: ");
+    }
+
+    private void reloadFirstPage() {
+        Long selectedId = selectedOrder == null ? null : selectedOrder.getOrderId();
+        requests.run(OrderApi.getOrdersPage(null, ORDERS_PAGE_SIZE, null, null, null, null), page -> {
+            orders.setAll(page.getOrders());
+            nextOrdersCursor = page.getNextCursor();
+            ordersSyncToken = page.getSyncToken();
+            loadMoreButton.setDisable(nextOrdersCursor == null);
+            reselectOrder(selectedId);
+        }, "Error refreshing orders: ");
+    }
+
+    private void reselectOrder(Long orderId) {
+        if (orderId != null) {
+            orders.stream()
+                    .filter(o -> o.getOrderId().equals(orderId))
+                    .findFirst()
+                    .ifPresent(o -> ordersTable.getSelectionModel().select(o));
+        }
     }
 
     @FXML
@@ -462,27 +647,21 @@ public class OrderStaffController {
             AlertUtils.warn("Please select an order to print.");
             return;
         }
-        try {
-            List<OrderItemDto> items = OrderItemApi.getOrderItems(selectedOrder.getOrderId());
-            InvoiceGenerator.generate(selectedOrder, items);
-        } catch (Exception e) {
-            AlertUtils.error("Error printing invoice: " + e.getMessage());
-            e.printStackTrace();
-        }
+        OrderDto order = selectedOrder;
+        requests.run(OrderItemApi.getOrderItems(order.getOrderId()),
+                items -> InvoiceGenerator.generate(order, items), "Error printing invoice: ");
     }
 
     private void refreshSelectedOrderSummary() {
         if (selectedOrder == null) {
             return;
         }
-        try {
-            OrderDto updated = OrderApi.getOrderById(selectedOrder.getOrderId());
-            selectedOrder.setStatus(updated.getStatus());
-            selectedOrder.setPlacedAt(updated.getPlacedAt());
-            selectedOrder.setTotal(updated.getTotal());
-            ordersTable.refresh();
-        } catch (Exception e) {
-            AlertUtils.error("Unable to refresh order summary: " + e.getMessage());
-        }
+        // The item table already holds the server's subtotals, so the total is summed locally
+        BigDecimal total = orderItems.stream()
+                .map(OrderItemDto::getSubtotal)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        selectedOrder.setTotal(total);
+        ordersTable.refresh();
     }
 }
@@ -1,10 +1,13 @@
 package com.example.demo.controllers;
 
 import com.example.demo.Launcher;
+import com.example.demo.api.EventStreamClient;
 import com.example.demo.api.ProductApi;
 import com.example.demo.model.ProductCategory;
 import com.example.demo.model.ProductDto;
 import com.example.demo.util.AlertUtils;
+import com.example.demo.util.ChangeMerger;
+import com.example.demo.util.FxRequests;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -13,9 +16,8 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.math.BigDecimal;
-import java.util.List;
 
-public class ProductController {
+public class ProductController implements Screen {
     
     @FXML private TableView<ProductDto> productsTable;
     @FXML private TableColumn<ProductDto, Long> productIdColumn;
@@ -32,18 +34,34 @@ public class ProductController {
     @FXML private Button addButton;
     @FXML private Button updateButton;
     @FXML private Button deleteButton;
+    @FXML private ProgressIndicator loadingIndicator;
     
+    private final FxRequests requests = FxRequests.forCachedScreen();
     private ObservableList<ProductDto> products = FXCollections.observableArrayList();
     private ProductDto selectedProduct;
+    private String syncToken;
+    private boolean loading;
+    private boolean reloadRequested;
     
     @FXML
     public void initialize() {
+        loadingIndicator.visibleProperty().bind(requests.busyProperty());
         setupTable();
-        loadProducts();
         setupEventHandlers();
         categoryCombo.setItems(FXCollections.observableArrayList(ProductCategory.values()));
 
     }
+
+    @Override
+    public void onShow() {
+        EventStreamClient.listen(changes -> {
+            if (changes.stream().anyMatch(c -> c.isAbout("PRODUCT"))) {
+                loadProducts();
+            }
+        });
+        // In step with the shared copy this is answered without a network call
+        loadProducts();
+    }
     
     private void setupTable() {
         productIdColumn.setCellValueFactory(new PropertyValueFactory<>("productId"));
@@ -75,14 +93,31 @@ public class ProductController {
         deleteButton.setDisable(true);
     }
     
+    /**
+     * Loads everything the first time, then only what changed since the last load. A request
+     * made while a load is running is folded into one more load after it.
+     */
     private void loadProducts() {
-        try {
-            List<ProductDto> productList = ProductApi.getAllProducts();
-            products.clear();
-            products.addAll(productList);
-        } catch (Exception e) {
-            AlertUtils.error("Error loading products: " + e.getMessage());
-            e.printStackTrace();
+        if (loading) {
+            reloadRequested = true;
+            return;
+        }
+        loading = true;
+        requests.run(ProductApi.getChanges(syncToken), changes -> {
+            ChangeMerger.merge(products, changes, ProductDto::getProductId);
+            syncToken = changes.getToken();
+            loadFinished();
+        }, error -> {
+            AlertUtils.error("Error loading products: " + FxRequests.messageOf(error));
+            loadFinished();
+        });
+    }
+
+    private void loadFinished() {
+        loading = false;
+        if (reloadRequested) {
+            reloadRequested = false;
+            loadProducts();
         }
     }
     
@@ -127,17 +162,16 @@ public class ProductController {
             }
             
             ProductDto newProduct = new ProductDto(null, name, category, price, stock);
-            ProductDto createdProduct = ProductApi.createProduct(newProduct);
-            
-            products.add(createdProduct);
-            clearFields();
-            AlertUtils.info("Product added successfully");
+            requests.run(ProductApi.createProduct(newProduct), createdProduct -> {
+                if (products.stream().noneMatch(p -> p.getProductId().equals(createdProduct.getProductId()))) {
+                    products.add(createdProduct);
+                }
+                clearFields();
+                AlertUtils.info("Product added successfully");
+            }, "Error adding product: ");
             
         } catch (NumberFormatException e) {
             AlertUtils.warn("Please enter valid numbers for price and stock");
-        } catch (Exception e) {
-            AlertUtils.error("Error adding product: " + e.getMessage());
-            e.printStackTrace();
         }
     }
     
@@ -172,22 +206,21 @@ public class ProductController {
                 return;
             }
             
-            selectedProduct.setName(name);
-            selectedProduct.setCategory(category);
-            selectedProduct.setPrice(price);
-            selectedProduct.setStockQty(stock);
-            
-            ProductApi.updateProduct(selectedProduct.getProductId(), selectedProduct);
-            
-            productsTable.refresh();
-            clearFields();
-            AlertUtils.info("Product updated successfully");
+            // The row only changes once the server has accepted the update
+            ProductDto product = selectedProduct;
+            ProductDto update = new ProductDto(product.getProductId(), name, category, price, stock);
+            requests.run(ProductApi.updateProduct(product.getProductId(), update), updated -> {
+                product.setName(name);
+                product.setCategory(category);
+                product.setPrice(price);
+                product.setStockQty(stock);
+                productsTable.refresh();
+                clearFields();
+                AlertUtils.info("Product updated successfully");
+            }, "Error updating product: ");
             
         } catch (NumberFormatException e) {
             AlertUtils.warn("Please enter valid numbers for price and stock");
-        } catch (Exception e) {
-            AlertUtils.error("Error updating product: " + e.getMessage());
-            e.printStackTrace();
         }
     }
     
@@ -199,15 +232,12 @@ public class ProductController {
         }
         
         if (AlertUtils.confirm("Are you sure you want to delete this product?")) {
-            try {
-                ProductApi.deleteProduct(selectedProduct.getProductId());
-                products.remove(selectedProduct);
+            ProductDto product = selectedProduct;
+            requests.run(ProductApi.deleteProduct(product.getProductId()), done -> {
+                products.remove(product);
                 clearFields();
                 AlertUtils.info("Product deleted successfully");
-            } catch (Exception e) {
-                AlertUtils.error("Error deleting product: " + e.getMessage());
-                e.printStackTrace();
-            }
+            }, "Error deleting product: ");
         }
     }
     
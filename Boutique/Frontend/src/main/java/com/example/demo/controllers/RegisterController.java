@@ -4,6 +4,7 @@ import com.example.demo.Launcher;
 import com.example.demo.api.AuthApi;
 import com.example.demo.model.RegisterRequest;
 import com.example.demo.util.AlertUtils;
+import com.example.demo.util.FxRequests;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.scene.control.ComboBox;
@@ -22,6 +23,7 @@ public class RegisterController {
     @FXML private TextField lastName;
     @FXML private TextField phone;           // optional
 
+    private final FxRequests requests = new FxRequests();
 
     @FXML
     public void initialize() {
@@ -42,6 +44,9 @@ public class RegisterController {
     }
     @FXML
     private void onRegister() {
+        if (requests.busyProperty().get()) {
+            return;
+        }
         try {
             String u  = safe(username);
             String e  = safe(email);
@@ -73,9 +78,10 @@ public class RegisterController {
                     emptyToNull(ph)// role must be enum string
             );
 
-            AuthApi.register(req);
-            AlertUtils.info("Account created. Please login.");
-            Launcher.go("login.fxml", "Login");
+            requests.run(AuthApi.register(req), done -> {
+                AlertUtils.info("Account created. Please login.");
+                Launcher.go("login.fxml", "Login");
+            }, error -> AlertUtils.warn(FxRequests.messageOf(error)));
         } catch (Exception ex) {
             com.example.demo.util.AlertUtils.warn(ex.getMessage());
         }
@@ -2,11 +2,12 @@ package com.example.demo.controllers;
 
 import com.example.demo.Launcher;
 import com.example.demo.api.OrderApi;
-import com.example.demo.api.ProductApi;
+import com.example.demo.api.ReportApi;
 import com.example.demo.model.OrderDto;
-import com.example.demo.model.OrderItemDto;
-import com.example.demo.model.ProductDto;
+import com.example.demo.model.OrderPageDto;
+import com.example.demo.model.SalesReportDto;
 import com.example.demo.util.AlertUtils;
+import com.example.demo.util.FxRequests;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -18,14 +19,14 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-public class ReportsController {
+public class ReportsController implements Screen {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+    private static final int ORDERS_PREVIEW_SIZE = 100;
 
     @FXML private DatePicker startDatePicker;
     @FXML private DatePicker endDatePicker;
@@ -47,8 +48,13 @@ public class ReportsController {
     @FXML private TableColumn<ProductReportDto, String> categoryColumn;
     @FXML private TableColumn<ProductReportDto, Integer> quantitySoldColumn;
     @FXML private TableColumn<ProductReportDto, String> revenueColumn;
+    @FXML private ProgressIndicator loadingIndicator;
 
+    private final FxRequests requests = FxRequests.forCachedScreen();
     private final ObservableList<OrderDto> orders = FXCollections.observableArrayList();
+    // The report being generated; a new one replaces it
+    private CompletableFuture<SalesReportDto> reportRequest;
+    private CompletableFuture<OrderPageDto> ordersRequest;
     private final ObservableList<ProductReportDto> productReports = FXCollections.observableArrayList();
 
     public static class ProductReportDto {
@@ -79,6 +85,7 @@ public class ReportsController {
 
     @FXML
     public void initialize() {
+        loadingIndicator.visibleProperty().bind(requests.busyProperty());
         setupTables();
         // Set default dates (last 30 days)
         endDatePicker.setValue(LocalDate.now());
@@ -89,6 +96,11 @@ public class ReportsController {
         totalItemsSoldLabel.setText("0");
     }
 
+    @Override
+    public void onShow() {
+        // Reports run on demand; the last one stays on screen until regenerated
+    }
+
     private void setupTables() {
         orderIdColumn.setCellValueFactory(new PropertyValueFactory<>("orderId"));
         customerNameColumn.setCellValueFactory(new PropertyValueFactory<>("customerName"));
@@ -119,67 +131,46 @@ public class ReportsController {
 
     @FXML
     public void generateReport() {
-        try {
-            LocalDate startDate = startDatePicker.getValue();
-            LocalDate endDate = endDatePicker.getValue();
-
-            if (startDate == null || endDate == null) {
-                AlertUtils.warn("Please select both start and end dates");
-                return;
-            }
-
-            if (startDate.isAfter(endDate)) {
-                AlertUtils.warn("Start date must be before or equal to end date");
-                return;
-            }
-
-            LocalDateTime startDateTime = startDate.atStartOfDay();
-            LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
 
-            List<OrderDto> filteredOrders = OrderApi.getOrdersByDateRange(startDateTime, endDateTime);
-            orders.setAll(filteredOrders);
-
-            // Fetch products to get categories
-            List<ProductDto> allProducts = ProductApi.getAllProducts();
-            Map<Long, String> productCategoryMap = new HashMap<>();
-            for (ProductDto product : allProducts) {
-                productCategoryMap.put(product.getProductId(), product.getCategory().name().replace('_', ' '));
-            }
+        if (startDate == null || endDate == null) {
+            AlertUtils.warn("Please select both start and end dates");
+            return;
+        }
 
-            // Calculate product sales
-            Map<String, ProductReportDto> productMap = new HashMap<>();
-            int totalItemsSold = 0;
-            BigDecimal totalRevenue = BigDecimal.ZERO;
-
-            for (OrderDto order : filteredOrders) {
-                if (order.getOrderItems() != null) {
-                    for (OrderItemDto item : order.getOrderItems()) {
-                        String key = item.getProductName();
-                        String category = productCategoryMap.getOrDefault(item.getProductId(), "Unknown");
-                        ProductReportDto report = productMap.getOrDefault(key,
-                                new ProductReportDto(item.getProductName(), category, 0, BigDecimal.ZERO));
-                        report.quantitySold += item.getQuantity();
-                        report.revenue = report.revenue.add(item.getSubtotal());
-                        productMap.put(key, report);
-                        totalItemsSold += item.getQuantity();
-                    }
-                }
-                totalRevenue = totalRevenue.add(order.getTotal());
-            }
+        if (startDate.isAfter(endDate)) {
+            AlertUtils.warn("Start date must be before or equal to end date");
+            return;
+        }
 
-            productReports.setAll(productMap.values().stream()
-                    .sorted(Comparator.comparing(ProductReportDto::getRevenue).reversed())
+        // The server treats ranges as [from, to), so the end date's whole day is included
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
+
+        if (reportRequest != null) reportRequest.cancel(true);
+        if (ordersRequest != null) ordersRequest.cancel(true);
+
+        // Aggregation happens server-side; only one row per product comes back
+        reportRequest = ReportApi.getSalesReport(startDateTime, endDateTime, "product");
+        requests.run(reportRequest, report -> {
+            productReports.setAll(report.getRows().stream()
+                    .map(row -> new ProductReportDto(
+                            row.getProductName(),
+                            row.getCategory() == null ? "Unknown" : row.getCategory().name().replace('_', ' '),
+                            row.getQuantitySold().intValue(),
+                            row.getRevenue()))
                     .collect(Collectors.toList()));
 
             // Update statistics
-            totalOrdersLabel.setText(String.valueOf(filteredOrders.size()));
-            totalRevenueLabel.setText("$" + totalRevenue.setScale(2, RoundingMode.HALF_UP));
-            totalItemsSoldLabel.setText(String.valueOf(totalItemsSold));
-
-        } catch (Exception e) {
-            AlertUtils.error("Error generating report: " + e.getMessage());
-            e.printStackTrace();
-        }
+            totalOrdersLabel.setText(String.valueOf(report.getTotalOrders()));
+            totalRevenueLabel.setText("$" + report.getTotalRevenue().setScale(2, RoundingMode.HALF_UP));
+            totalItemsSoldLabel.setText(String.valueOf(report.getTotalItemsSold()));
+        }, "Error generating report: ");
+
+        // The orders table shows the most recent orders of the range rather than all of them
+        ordersRequest = OrderApi.getOrdersPage(null, ORDERS_PREVIEW_SIZE, null, null, startDateTime, endDateTime);
+        requests.run(ordersRequest, page -> orders.setAll(page.getOrders()), "Error generating report: ");
     }
 
     @FXML
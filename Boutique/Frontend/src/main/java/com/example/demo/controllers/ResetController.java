@@ -3,6 +3,7 @@ package com.example.demo.controllers;
 import com.example.demo.Launcher;
 import com.example.demo.api.AuthApi;
 import com.example.demo.util.AlertUtils;
+import com.example.demo.util.FxRequests;
 import javafx.fxml.FXML;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
@@ -12,7 +13,12 @@ public class ResetController {
     @FXML private PasswordField newPassword;
     @FXML private PasswordField confirmPassword;
 
+    private final FxRequests requests = new FxRequests();
+
     public void onReset() {
+        if (requests.busyProperty().get()) {
+            return;
+        }
         try {
             String e = safe(email.getText());
             String p = safe(newPassword.getText());
@@ -33,9 +39,10 @@ public class ResetController {
                 return;
             }
 
-            AuthApi.resetPassword(e, p);
-            AlertUtils.info("Password reset successfully. Please login with your new password.");
-            Launcher.go("login.fxml", "Login");
+            requests.run(AuthApi.resetPassword(e, p), done -> {
+                AlertUtils.info("Password reset successfully. Please login with your new password.");
+                Launcher.go("login.fxml", "Login");
+            }, "Reset failed: ");
         } catch (Exception ex) {
             AlertUtils.error("Reset failed: " + ex.getMessage());
         }
@@ -0,0 +1,12 @@
+package com.example.demo.controllers;
+
+/**
+ * A controller whose screen Launcher loads once and keeps. initialize() only builds the view,
+ * so it can run ahead of time off the FX thread; onShow() runs on the FX thread each time the
+ * screen is navigated to and brings its data up to date instead of loading it from scratch.
+ */
+public interface Screen {
+
+    /** Called after the screen becomes visible; the place to listen for server changes. */
+    void onShow();
+}
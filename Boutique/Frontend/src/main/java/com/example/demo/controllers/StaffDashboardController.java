@@ -1,18 +1,24 @@
 package com.example.demo.controllers;
 
 import com.example.demo.Launcher;
+import com.example.demo.api.ApiClient;
 import com.example.demo.api.CustomerApi;
+import com.example.demo.api.DashboardApi;
+import com.example.demo.api.EventStreamClient;
 import com.example.demo.api.OrderApi;
 import com.example.demo.api.ProductApi;
-import com.example.demo.model.CustomerDto;
+import com.example.demo.model.DashboardSummaryDto;
 import com.example.demo.model.OrderDto;
+import com.example.demo.model.OrderPageDto;
 import com.example.demo.model.ProductDto;
-import com.example.demo.util.AlertUtils;
+import com.example.demo.util.FxRequests;
+import com.example.demo.util.PanelLoader;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
@@ -20,16 +26,16 @@ import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
-public class StaffDashboardController {
+public class StaffDashboardController implements Screen {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
-    private static final int LOW_STOCK_THRESHOLD = 3;
+    private static final int RECENT_ORDERS = 8;
+    private static final Duration PANEL_TIMEOUT = Duration.ofSeconds(5);
 
     @FXML private Label totalOrdersLabel;
     @FXML private Label pendingOrdersLabel;
@@ -49,26 +55,41 @@ public class StaffDashboardController {
     @FXML private TableColumn<ProductDto, String> lowStockNameColumn;
     @FXML private TableColumn<ProductDto, String> lowStockCategoryColumn;
     @FXML private TableColumn<ProductDto, Integer> lowStockQtyColumn;
+    @FXML private ProgressIndicator loadingIndicator;
 
     private final ObservableList<OrderDto> recentOrders = FXCollections.observableArrayList();
-    private final ObservableList<CustomerDto> recentCustomers = FXCollections.observableArrayList();
     private final ObservableList<ProductDto> lowStockProducts = FXCollections.observableArrayList();
+    private final FxRequests requests = FxRequests.forCachedScreen();
+
+    // Counters, recent orders and low stock load side by side and each is drawn when its own call answers
+    private final PanelLoader<DashboardSummaryDto> summaryPanel = new PanelLoader<>(requests,
+            DashboardApi::getSummary, PANEL_TIMEOUT, this::updateStatistics, this::statisticsFailed);
+    private final PanelLoader<List<OrderDto>> recentOrdersPanel = new PanelLoader<>(requests,
+            () -> ApiClient.then(OrderApi.getOrdersPage(null, RECENT_ORDERS, null, null, null, null), OrderPageDto::getOrders),
+            PANEL_TIMEOUT,
+            orders -> showRows(recentOrdersTable, recentOrders, orders),
+            error -> showFailure(recentOrdersTable, recentOrders, "Recent orders", error));
+    private final PanelLoader<List<ProductDto>> lowStockPanel = new PanelLoader<>(requests,
+            ProductApi::getLowStockProducts, PANEL_TIMEOUT,
+            products -> showRows(lowStockTable, lowStockProducts, products),
+            error -> showFailure(lowStockTable, lowStockProducts, "Low stock", error));
 
 
     @FXML
     public void initialize() {
+        loadingIndicator.visibleProperty().bind(requests.busyProperty());
         setupTables();
-        refreshData();
+    }
+
+    @Override
+    public void onShow() {
+        EventStreamClient.listen(changes -> loadData());
+        loadData();
     }
 
     @FXML
     public void refreshData() {
-        try {
-            loadData();
-        } catch (Exception e) {
-            AlertUtils.error("Failed to load dashboard. Please contact an administrator.\n\nDetails: " + e.getMessage());
-            e.printStackTrace();
-        }
+        loadData();
     }
 
     private void setupTables() {
@@ -97,43 +118,35 @@ public class StaffDashboardController {
     }
 
     private void loadData() {
-        try {
-            List<OrderDto> orders = OrderApi.getAllOrders();
-            orders.sort(Comparator.comparing(OrderDto::getPlacedAt, Comparator.nullsLast(Comparator.reverseOrder())));
-            recentOrders.setAll(orders.stream().limit(8).collect(Collectors.toList()));
-
-            List<CustomerDto> customers = CustomerApi.getAllCustomers();
-            recentCustomers.setAll(customers.stream().limit(8).collect(Collectors.toList()));
-            List<ProductDto> products = ProductApi.getAllProducts();
-            lowStockProducts.setAll(products.stream()
-                    .filter(p -> p.getStockQty() != null && p.getStockQty() <= LOW_STOCK_THRESHOLD)
-                    .sorted(Comparator.comparing(ProductDto::getStockQty))
-                    .collect(Collectors.toList()));
-
-            updateStatistics(orders, customers , products);
-        } catch (Exception e) {
-            AlertUtils.error("Error loading dashboard data: " + e.getMessage());
-            e.printStackTrace();
-        }
+        // Counters come precomputed from the server; only the rows shown are downloaded
+        summaryPanel.load();
+        recentOrdersPanel.load();
+        lowStockPanel.load();
+    }
+
+    private static <T> void showRows(TableView<T> table, ObservableList<T> rows, List<T> loaded) {
+        table.setPlaceholder(null);
+        rows.setAll(loaded);
     }
 
-    private void updateStatistics(List<OrderDto> orders, List<CustomerDto> customers ,List<ProductDto> products) {
-        long pending = orders.stream().filter(o -> "PENDING".equals(o.getStatus())).count();
-        long fulfilled = orders.stream().filter(o -> "FULFILLED".equals(o.getStatus())).count();
-        BigDecimal inventoryValue = products.stream()
-                .map(p -> {
-                    int stock = p.getStockQty() == null ? 0 : p.getStockQty();
-                    return p.getPrice().multiply(BigDecimal.valueOf(stock));
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        long lowStock = products.stream()
-                .filter(p -> p.getStockQty() != null && p.getStockQty() <= LOW_STOCK_THRESHOLD)
-                .count();
-        totalOrdersLabel.setText(String.valueOf(orders.size()));
-        pendingOrdersLabel.setText(String.valueOf(pending));
-        fulfilledOrdersLabel.setText(String.valueOf(fulfilled));
-        totalCustomersLabel.setText(String.valueOf(customers.size()));
+    private static <T> void showFailure(TableView<T> table, ObservableList<T> rows, String panel, Throwable error) {
+        table.setPlaceholder(new Label(panel + " could not be loaded: " + PanelLoader.describe(error)));
+        rows.clear();
+    }
+
+    private void updateStatistics(DashboardSummaryDto summary) {
+        totalOrdersLabel.setText(String.valueOf(summary.getTotalOrders()));
+        pendingOrdersLabel.setText(String.valueOf(summary.getPendingOrders()));
+        fulfilledOrdersLabel.setText(String.valueOf(summary.getFulfilledOrders()));
+        totalCustomersLabel.setText(String.valueOf(summary.getTotalCustomers()));
+
+    }
 
+    private void statisticsFailed(Throwable error) {
+        totalOrdersLabel.setText("—");
+        pendingOrdersLabel.setText("—");
+        fulfilledOrdersLabel.setText("—");
+        totalCustomersLabel.setText("—");
     }
 
     @FXML
@@ -148,6 +161,10 @@ public class StaffDashboardController {
 
     @FXML
     public void logout() {
+        // The next user starts from fresh reference data and untouched screens
+        ProductApi.invalidateCache();
+        CustomerApi.invalidateCache();
+        Launcher.resetScreens();
         Launcher.go("login.fxml", "Login");
     }
 }
@@ -0,0 +1,52 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ChangeNotificationDto {
+    public static final String RESYNC = "RESYNC";
+
+    @JsonProperty("type")
+    private String type;
+
+    @JsonProperty("id")
+    private Long id;
+
+    @JsonProperty("action")
+    private String action;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("stockQty")
+    private Integer stockQty;
+
+    public ChangeNotificationDto() {}
+
+    public ChangeNotificationDto(String type, Long id, String action) {
+        this.type = type;
+        this.id = id;
+        this.action = action;
+    }
+
+    /** Sent by the client after reconnecting: events may have been missed, so re-sync everything. */
+    public boolean isResync() { return RESYNC.equals(action); }
+
+    public boolean isAbout(String entityType) { return isResync() || entityType.equals(type); }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getStockQty() { return stockQty; }
+    public void setStockQty(Integer stockQty) { this.stockQty = stockQty; }
+}
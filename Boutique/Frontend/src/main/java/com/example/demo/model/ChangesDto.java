@@ -0,0 +1,42 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ChangesDto<T> {
+    @JsonProperty("token")
+    private String token;
+
+    @JsonProperty("full")
+    private boolean full;
+
+    @JsonProperty("resync")
+    private boolean resync;
+
+    @JsonProperty("upserted")
+    private List<T> upserted = new ArrayList<>();
+
+    @JsonProperty("deleted")
+    private List<Long> deleted = new ArrayList<>();
+
+    public ChangesDto() {}
+
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
+
+    public boolean isFull() { return full; }
+    public void setFull(boolean full) { this.full = full; }
+
+    public boolean isResync() { return resync; }
+    public void setResync(boolean resync) { this.resync = resync; }
+
+    public List<T> getUpserted() { return upserted; }
+    public void setUpserted(List<T> upserted) { this.upserted = upserted; }
+
+    public List<Long> getDeleted() { return deleted; }
+    public void setDeleted(List<Long> deleted) { this.deleted = deleted; }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CheckoutRequestDto {
+    @JsonProperty("customerId")
+    private Long customerId;
+
+    @JsonProperty("description")
+    private String description;
+
+    @JsonProperty("lines")
+    private List<Line> lines = new ArrayList<>();
+
+    @JsonProperty("fulfill")
+    private boolean fulfill;
+
+    public CheckoutRequestDto() {}
+
+    public CheckoutRequestDto(Long customerId, String description, List<Line> lines, boolean fulfill) {
+        this.customerId = customerId;
+        this.description = description;
+        this.lines = lines;
+        this.fulfill = fulfill;
+    }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public List<Line> getLines() { return lines; }
+    public void setLines(List<Line> lines) { this.lines = lines; }
+
+    public boolean isFulfill() { return fulfill; }
+    public void setFulfill(boolean fulfill) { this.fulfill = fulfill; }
+
+    public static class Line {
+        @JsonProperty("productId")
+        private Long productId;
+
+        @JsonProperty("quantity")
+        private Integer quantity;
+
+        public Line() {}
+
+        public Line(Long productId, Integer quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+
+        public Long getProductId() { return productId; }
+        public void setProductId(Long productId) { this.productId = productId; }
+
+        public Integer getQuantity() { return quantity; }
+        public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DashboardSummaryDto {
+    @JsonProperty("totalOrders")
+    private long totalOrders;
+
+    @JsonProperty("pendingOrders")
+    private long pendingOrders;
+
+    @JsonProperty("fulfilledOrders")
+    private long fulfilledOrders;
+
+    @JsonProperty("inventoryValue")
+    private BigDecimal inventoryValue = BigDecimal.ZERO;
+
+    @JsonProperty("lowStockCount")
+    private long lowStockCount;
+
+    @JsonProperty("lowStockThreshold")
+    private int lowStockThreshold;
+
+    @JsonProperty("totalCustomers")
+    private long totalCustomers;
+
+    public DashboardSummaryDto() {}
+
+    public long getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(long totalOrders) { this.totalOrders = totalOrders; }
+
+    public long getPendingOrders() { return pendingOrders; }
+    public void setPendingOrders(long pendingOrders) { this.pendingOrders = pendingOrders; }
+
+    public long getFulfilledOrders() { return fulfilledOrders; }
+    public void setFulfilledOrders(long fulfilledOrders) { this.fulfilledOrders = fulfilledOrders; }
+
+    public BigDecimal getInventoryValue() { return inventoryValue; }
+    public void setInventoryValue(BigDecimal inventoryValue) { this.inventoryValue = inventoryValue; }
+
+    public long getLowStockCount() { return lowStockCount; }
+    public void setLowStockCount(long lowStockCount) { this.lowStockCount = lowStockCount; }
+
+    public int getLowStockThreshold() { return lowStockThreshold; }
+    public void setLowStockThreshold(int lowStockThreshold) { this.lowStockThreshold = lowStockThreshold; }
+
+    public long getTotalCustomers() { return totalCustomers; }
+    public void setTotalCustomers(long totalCustomers) { this.totalCustomers = totalCustomers; }
+}
@@ -32,6 +32,9 @@ public class OrderDto {
     @JsonProperty("total")
     private BigDecimal total;
 
+    @JsonProperty("unitCount")
+    private Integer unitCount;
+
     public OrderDto() {}
 
     public OrderDto(Long orderId,
@@ -88,4 +91,7 @@ public class OrderDto {
     public void setTotal(BigDecimal total) {
         this.total = total;
     }
+
+    public Integer getUnitCount() { return unitCount; }
+    public void setUnitCount(Integer unitCount) { this.unitCount = unitCount; }
 }
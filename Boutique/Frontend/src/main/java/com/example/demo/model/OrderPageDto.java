@@ -0,0 +1,36 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderPageDto {
+    @JsonProperty("orders")
+    private List<OrderDto> orders = new ArrayList<>();
+
+    @JsonProperty("nextCursor")
+    private String nextCursor;
+
+    @JsonProperty("hasMore")
+    private boolean hasMore;
+
+    @JsonProperty("syncToken")
+    private String syncToken;
+
+    public OrderPageDto() {}
+
+    public List<OrderDto> getOrders() { return orders; }
+    public void setOrders(List<OrderDto> orders) { this.orders = orders; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public String getSyncToken() { return syncToken; }
+    public void setSyncToken(String syncToken) { this.syncToken = syncToken; }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SalesReportDto {
+    @JsonProperty("groupBy")
+    private String groupBy;
+
+    @JsonProperty("rows")
+    private List<SalesReportRowDto> rows = new ArrayList<>();
+
+    @JsonProperty("totalOrders")
+    private long totalOrders;
+
+    @JsonProperty("totalItemsSold")
+    private long totalItemsSold;
+
+    @JsonProperty("totalRevenue")
+    private BigDecimal totalRevenue = BigDecimal.ZERO;
+
+    public SalesReportDto() {}
+
+    public String getGroupBy() { return groupBy; }
+    public void setGroupBy(String groupBy) { this.groupBy = groupBy; }
+
+    public List<SalesReportRowDto> getRows() { return rows; }
+    public void setRows(List<SalesReportRowDto> rows) { this.rows = rows; }
+
+    public long getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(long totalOrders) { this.totalOrders = totalOrders; }
+
+    public long getTotalItemsSold() { return totalItemsSold; }
+    public void setTotalItemsSold(long totalItemsSold) { this.totalItemsSold = totalItemsSold; }
+
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(BigDecimal totalRevenue) { this.totalRevenue = totalRevenue; }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SalesReportRowDto {
+    @JsonProperty("productId")
+    private Long productId;
+
+    @JsonProperty("productName")
+    private String productName;
+
+    @JsonProperty("category")
+    private ProductCategory category;
+
+    @JsonProperty("day")
+    private LocalDate day;
+
+    @JsonProperty("quantitySold")
+    private Long quantitySold;
+
+    @JsonProperty("revenue")
+    private BigDecimal revenue;
+
+    public SalesReportRowDto() {}
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public ProductCategory getCategory() { return category; }
+    public void setCategory(ProductCategory category) { this.category = category; }
+
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+
+    public Long getQuantitySold() { return quantitySold; }
+    public void setQuantitySold(Long quantitySold) { this.quantitySold = quantitySold; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.util;
+
+import com.example.demo.model.ChangesDto;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+public final class ChangeMerger {
+    private ChangeMerger() {}
+
+    /**
+     * Applies a changes response to a table's backing list: a full response replaces it, a delta
+     * replaces changed rows in place, drops deleted ones and adds new ones at the bottom.
+     */
+    public static <T> void merge(ObservableList<T> target, ChangesDto<T> changes, Function<T, Long> idOf) {
+        if (changes.isFull()) {
+            target.setAll(changes.getUpserted());
+            return;
+        }
+
+        Map<Long, Integer> indexById = indexById(target, idOf);
+        for (T item : changes.getUpserted()) {
+            Integer index = indexById.get(idOf.apply(item));
+            if (index != null) {
+                target.set(index, item);
+            } else {
+                target.add(item);
+            }
+        }
+        removeDeleted(target, changes, idOf);
+    }
+
+    /**
+     * Applies a delta to a list loaded page by page in {@code pageOrder}. Changed rows are replaced
+     * in place; a new row is added only if it sorts before the first loaded row, since any other
+     * belongs on a page further down and arrives when that page is loaded.
+     */
+    public static <T> void mergePage(ObservableList<T> target, ChangesDto<T> changes,
+                                     Function<T, Long> idOf, Comparator<T> pageOrder) {
+        Map<Long, Integer> indexById = indexById(target, idOf);
+        T first = target.isEmpty() ? null : target.get(0);
+        List<T> newer = new ArrayList<>();
+        for (T item : changes.getUpserted()) {
+            Integer index = indexById.get(idOf.apply(item));
+            if (index != null) {
+                target.set(index, item);
+            } else if (first == null || pageOrder.compare(item, first) < 0) {
+                newer.add(item);
+            }
+        }
+        newer.sort(pageOrder);
+        target.addAll(0, newer);
+        removeDeleted(target, changes, idOf);
+    }
+
+    private static <T> Map<Long, Integer> indexById(List<T> target, Function<T, Long> idOf) {
+        Map<Long, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < target.size(); i++) {
+            indexById.put(idOf.apply(target.get(i)), i);
+        }
+        return indexById;
+    }
+
+    private static <T> void removeDeleted(ObservableList<T> target, ChangesDto<T> changes, Function<T, Long> idOf) {
+        List<Long> deleted = changes.getDeleted();
+        if (!deleted.isEmpty()) {
+            Set<Long> gone = new HashSet<>(deleted);
+            target.removeIf(item -> gone.contains(idOf.apply(item)));
+        }
+    }
+}
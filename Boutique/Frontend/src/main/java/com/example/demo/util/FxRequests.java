@@ -0,0 +1,124 @@
+package com.example.demo.util;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * The API calls a screen has in flight. Results come back on the FX thread, busyProperty()
+ * drives the screen's loading indicator, and when Launcher navigates away every call still
+ * running is cancelled and its result dropped, so a slow answer cannot touch a screen that is
+ * gone. Screens that Launcher keeps between visits use {@link #forCachedScreen()} instead: their
+ * calls are left to finish, so the screen is current when it is shown again. Use from the FX
+ * thread only; each controller owns one.
+ */
+public final class FxRequests {
+
+    // Screens created since the last navigation; Launcher closes them before loading the next
+    private static final List<FxRequests> OPEN = new ArrayList<>();
+
+    private final Set<CompletableFuture<?>> pending = new HashSet<>();
+    private final ReadOnlyBooleanWrapper busy = new ReadOnlyBooleanWrapper(false);
+    private boolean closed;
+
+    public FxRequests() {
+        OPEN.add(this);
+    }
+
+    private FxRequests(boolean registered) {
+        if (registered) {
+            OPEN.add(this);
+        }
+    }
+
+    /** For a screen Launcher caches; navigation never closes it. May be created off the FX thread. */
+    public static FxRequests forCachedScreen() {
+        return new FxRequests(false);
+    }
+
+    /** Called on navigation; cancels the calls of the screen being left. */
+    public static void closeAll() {
+        for (FxRequests requests : OPEN) {
+            requests.close();
+        }
+        OPEN.clear();
+    }
+
+    public ReadOnlyBooleanProperty busyProperty() {
+        return busy.getReadOnlyProperty();
+    }
+
+    /** Failures are shown with AlertUtils.error, prefixed with {@code failurePrefix}. */
+    public <T> void run(CompletableFuture<T> request, Consumer<? super T> onSuccess, String failurePrefix) {
+        run(request, onSuccess, error -> AlertUtils.error(failurePrefix + messageOf(error)));
+    }
+
+    public <T> void run(CompletableFuture<T> request, Consumer<? super T> onSuccess, Consumer<Throwable> onFailure) {
+        run(request, onSuccess, onFailure, () -> { });
+    }
+
+    /**
+     * Like {@link #run(CompletableFuture, Consumer, Consumer)}, then calls {@code onSettled} on
+     * the FX thread once the call is over, including when it was cancelled or its result dropped
+     * and neither of the other callbacks ran.
+     */
+    public <T> void run(CompletableFuture<T> request, Consumer<? super T> onSuccess, Consumer<Throwable> onFailure,
+                        Runnable onSettled) {
+        if (closed) {
+            request.cancel(true);
+            onSettled.run();
+            return;
+        }
+        pending.add(request);
+        busy.set(true);
+        request.whenComplete((value, error) -> Platform.runLater(() -> {
+            pending.remove(request);
+            busy.set(!pending.isEmpty());
+            try {
+                if (closed || request.isCancelled()) {
+                    return;
+                }
+                if (error == null) {
+                    onSuccess.accept(value);
+                } else {
+                    onFailure.accept(unwrap(error));
+                }
+            } finally {
+                onSettled.run();
+            }
+        }));
+    }
+
+    /** Cancels every call in flight; later results are dropped. */
+    public void cancelAll() {
+        for (CompletableFuture<?> request : new ArrayList<>(pending)) {
+            request.cancel(true);
+        }
+    }
+
+    private void close() {
+        closed = true;
+        cancelAll();
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    public static String messageOf(Throwable error) {
+        Throwable cause = unwrap(error);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
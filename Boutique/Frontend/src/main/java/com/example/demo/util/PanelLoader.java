@@ -0,0 +1,59 @@
+package com.example.demo.util;
+
+import com.example.demo.api.ApiClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * One part of a screen that loads on its own: it is drawn as soon as its own call answers,
+ * whatever the other parts are doing, and a slow call only times out that part. A load asked
+ * for while one is running is folded into a single follow-up, so a burst of server events
+ * costs at most one extra call. Use from the FX thread only.
+ */
+public final class PanelLoader<T> {
+
+    private final FxRequests requests;
+    private final Supplier<CompletableFuture<T>> fetch;
+    private final Duration timeout;
+    private final Consumer<? super T> render;
+    private final Consumer<Throwable> renderFailure;
+
+    private boolean loading;
+    private boolean reloadRequested;
+
+    public PanelLoader(FxRequests requests, Supplier<CompletableFuture<T>> fetch, Duration timeout,
+                       Consumer<? super T> render, Consumer<Throwable> renderFailure) {
+        this.requests = requests;
+        this.fetch = fetch;
+        this.timeout = timeout;
+        this.render = render;
+        this.renderFailure = renderFailure;
+    }
+
+    public void load() {
+        if (loading) {
+            reloadRequested = true;
+            return;
+        }
+        loading = true;
+        // Settles on cancellation too, so a dropped call never leaves the panel stuck loading
+        requests.run(ApiClient.withTimeout(fetch.get(), timeout), render, renderFailure, this::loadFinished);
+    }
+
+    private void loadFinished() {
+        loading = false;
+        if (reloadRequested) {
+            reloadRequested = false;
+            load();
+        }
+    }
+
+    /** Short text for a panel that could not load. */
+    public static String describe(Throwable error) {
+        return FxRequests.unwrap(error) instanceof TimeoutException ? "timed out" : FxRequests.messageOf(error);
+    }
+}